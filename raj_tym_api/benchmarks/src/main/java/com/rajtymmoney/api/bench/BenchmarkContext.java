@@ -0,0 +1,117 @@
+package com.rajtymmoney.api.bench;
+
+import com.rajtymmoney.api.RajTymApiApplication;
+import com.rajtymmoney.api.service.TransactionRollupService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the API (without the web layer unless asked) against a throwaway PostgreSQL and seeds the ledger.
+ * Set -Dbench.jdbc.url (plus bench.jdbc.username/password) to use an existing server instead;
+ * its schema is recreated on every trial.
+ */
+final class BenchmarkContext implements AutoCloseable {
+    static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    static final int DAYS = 5 * 365;
+    static final String[] CATEGORIES = {
+            "Groceries", "Rent", "Utilities", "Transport", "Dining", "Health", "Salary", "Freelance"
+    };
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    static BenchmarkContext start() throws IOException {
+        return start(WebApplicationType.NONE);
+    }
+
+    /**
+     * @param extraArgs additional {@code --property=value} overrides for this context
+     */
+    static BenchmarkContext start(WebApplicationType webApplicationType, String... extraArgs) throws IOException {
+        return start(Map.of(), webApplicationType, extraArgs);
+    }
+
+    /**
+     * @param serverConfig postgresql.conf settings for the throwaway server; not applied to bench.jdbc.url
+     */
+    static BenchmarkContext start(Map<String, String> serverConfig, WebApplicationType webApplicationType,
+                                  String... extraArgs) throws IOException {
+        String url = System.getProperty("bench.jdbc.url");
+        String username = System.getProperty("bench.jdbc.username", "postgres");
+        String password = System.getProperty("bench.jdbc.password", "");
+        EmbeddedPostgres postgres = null;
+        if (url == null) {
+            EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder();
+            serverConfig.forEach(builder::setServerConfig);
+            postgres = builder.start();
+            url = postgres.getJdbcUrl("postgres", "postgres");
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RajTymApiApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+        return new BenchmarkContext(postgres, context);
+    }
+
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Inserts {@code rows} transactions spread evenly over {@link #DAYS} days in a single
+     * statement, then rebuilds the monthly rollups so the aggregate paths see the same data.
+     */
+    void seed(int rows) {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        jdbc.update("""
+                INSERT INTO transactions (id, type, amount, description, category, date, updated_at)
+                SELECT nextval('transactions_seq'),
+                       CASE WHEN g % 10 = 0 THEN 'INCOME' ELSE 'EXPENSE' END,
+                       round((1 + (g::bigint * 7919 % 50000) / 100.0)::numeric, 2),
+                       'Seeded transaction ' || g,
+                       (ARRAY['Groceries','Rent','Utilities','Transport','Dining','Health','Salary','Freelance'])[1 + g % 8],
+                       DATE '2020-01-01' + (g % ?),
+                       localtimestamp
+                FROM generate_series(1, ?) AS g
+                """, DAYS, rows);
+        jdbc.execute("ANALYZE transactions");
+        bean(TransactionRollupService.class).rebuild();
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+}
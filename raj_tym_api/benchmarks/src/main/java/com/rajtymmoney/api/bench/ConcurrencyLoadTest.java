@@ -0,0 +1,136 @@
+package com.rajtymmoney.api.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test comparing the request execution modes. Each mode gets a fresh
+ * context and ledger; {@code load.concurrency} clients then issue paged range queries and
+ * category aggregates back to back for {@code load.duration}.
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.rajtymmoney.api.bench.ConcurrencyLoadTest \
+ *     -Dload.concurrency=2000 -Dload.duration=PT30S -Dload.rows=100000
+ * </pre>
+ */
+public final class ConcurrencyLoadTest {
+
+    enum Mode {
+        PLATFORM("--spring.threads.virtual.enabled=false"),
+        VIRTUAL("--spring.threads.virtual.enabled=true"),
+        VIRTUAL_LIMITED("--spring.threads.virtual.enabled=true", "--tym.datasource.max-concurrency=10");
+
+        private final String[] args;
+
+        Mode(String... args) {
+            this.args = args;
+        }
+    }
+
+    record Result(Mode mode, int concurrency, long requests, long errors, double throughputPerSecond,
+                  double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    private ConcurrencyLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.getInteger("load.rows", 100_000);
+        int concurrency = Integer.getInteger("load.concurrency", 2000);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        File output = new File(System.getProperty("load.results", "target/load-test-result.json"));
+
+        List<Result> results = new ArrayList<>();
+        for (Mode mode : Mode.values()) {
+            try (BenchmarkContext context = BenchmarkContext.start(WebApplicationType.SERVLET, mode.args)) {
+                context.seed(rows);
+                URI base = URI.create("http://localhost:" + context.port());
+                run(base, mode, concurrency, warmup);
+                Result result = run(base, mode, concurrency, duration);
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        output.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, results);
+        System.out.println("Results written to " + output);
+    }
+
+    private static Result run(URI base, Mode mode, int concurrency, Duration duration) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[concurrency][];
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int slot = i;
+            clients.add(Thread.ofVirtual().start(() -> {
+                long[] samples = new long[256];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(nextRequest(base),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - begin;
+                }
+                latencies[slot] = Arrays.copyOf(samples, count);
+            }));
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        if (all.length == 0) {
+            return new Result(mode, concurrency, 0, errors.get(), 0, 0, 0, 0);
+        }
+        return new Result(mode, concurrency, all.length, errors.get(), all.length / elapsedSeconds,
+                millis(all[(int) (all.length * 0.50)]), millis(all[Math.min(all.length - 1, (int) (all.length * 0.99))]),
+                millis(all[all.length - 1]));
+    }
+
+    private static HttpRequest nextRequest(URI base) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = BenchmarkContext.FIRST_DAY.plusMonths(random.nextInt(59));
+        String path = random.nextBoolean()
+                ? "/api/transactions/page?start=" + start + "&end=" + start.plusMonths(1)
+                : "/api/aggregates/by-category?start=" + start + "&end=" + start.plusMonths(3);
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofSeconds(60)).GET().build();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
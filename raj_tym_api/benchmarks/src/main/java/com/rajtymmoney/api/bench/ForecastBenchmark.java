@@ -0,0 +1,49 @@
+package com.rajtymmoney.api.bench;
+
+import com.rajtymmoney.api.dto.CashFlowForecast;
+import com.rajtymmoney.api.service.ForecastService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monte Carlo forecasts from the seeded ledger's last two years, including the rollup
+ * reads that build the model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ForecastBenchmark {
+    private static final LocalDate AS_OF = BenchmarkContext.FIRST_DAY.plusDays(BenchmarkContext.DAYS);
+
+    @Param({"1000", "10000"})
+    public int scenarios;
+
+    @Param({"12", "60"})
+    public int months;
+
+    private BenchmarkContext context;
+    private ForecastService forecastService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        context.seed(100_000);
+        forecastService = context.bean(ForecastService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public CashFlowForecast forecast() {
+        return forecastService.forecast(AS_OF, months, scenarios, 24, null, true, 42L);
+    }
+}
@@ -0,0 +1,161 @@
+package com.rajtymmoney.api.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent savings updates against one goal, once per update strategy. Every client adds
+ * {@code stress.amount} {@code stress.contributions} times; the goal's target is exactly the
+ * expected total, so a run without lost updates ends at the target with status COMPLETED.
+ * Exits non-zero if the contribute endpoint loses an update.
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.rajtymmoney.api.bench.GoalContributionStressTest \
+ *     -Dstress.clients=32 -Dstress.contributions=50
+ * </pre>
+ */
+public final class GoalContributionStressTest {
+
+    enum Strategy {
+        /** GET, add, then PUT the whole goal without a version: the old client behaviour. */
+        READ_MODIFY_WRITE,
+        /** The same, sending the version back and retrying on 409 Conflict. */
+        VERSIONED_PUT,
+        /** POST /contribute with the delta. */
+        CONTRIBUTE
+    }
+
+    record Result(Strategy strategy, int clients, int contributionsPerClient, BigDecimal expected,
+                  BigDecimal actual, long lostUpdates, long conflicts, long errors, String finalStatus,
+                  double elapsedMillis) {
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private GoalContributionStressTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("stress.clients", 32);
+        int contributions = Integer.getInteger("stress.contributions", 50);
+        BigDecimal amount = new BigDecimal(System.getProperty("stress.amount", "1.25"));
+        File output = new File(System.getProperty("stress.results", "target/goal-stress-result.json"));
+
+        List<Result> results = new ArrayList<>();
+        try (BenchmarkContext context = BenchmarkContext.start(WebApplicationType.SERVLET)) {
+            URI base = URI.create("http://localhost:" + context.port());
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            for (Strategy strategy : Strategy.values()) {
+                Result result = run(client, base, strategy, clients, contributions, amount);
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        output.getParentFile().mkdirs();
+        JSON.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, results);
+        System.out.println("Results written to " + output);
+
+        Result contribute = results.get(results.size() - 1);
+        if (contribute.lostUpdates() != 0 || contribute.errors() != 0 || !"COMPLETED".equals(contribute.finalStatus())) {
+            System.err.println("Contribute endpoint lost updates: " + contribute);
+            System.exit(1);
+        }
+    }
+
+    private static Result run(HttpClient client, URI base, Strategy strategy, int clients, int contributions,
+                              BigDecimal amount) throws Exception {
+        BigDecimal expected = amount.multiply(BigDecimal.valueOf((long) clients * contributions));
+        ObjectNode goal = JSON.createObjectNode()
+                .put("name", strategy.name())
+                .put("targetAmount", expected)
+                .put("currentSavings", BigDecimal.ZERO);
+        long id = JSON.readTree(send(client, HttpRequest.newBuilder(base.resolve("/api/goals"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(goal.toString())).build()).body()).get("id").asLong();
+        URI goalUri = base.resolve("/api/goals/" + id);
+
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                    for (int n = 0; n < contributions; n++) {
+                        contributeOnce(client, goalUri, strategy, amount, conflicts, errors);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsedMillis = (System.nanoTime() - started) / 1e6;
+
+        ObjectNode end = (ObjectNode) JSON.readTree(send(client, HttpRequest.newBuilder(goalUri).GET().build()).body());
+        BigDecimal actual = end.get("currentSavings").decimalValue();
+        long lost = expected.subtract(actual).divideToIntegralValue(amount).longValueExact();
+        return new Result(strategy, clients, contributions, expected, actual, lost, conflicts.get(), errors.get(),
+                end.get("status").asText(), elapsedMillis);
+    }
+
+    private static void contributeOnce(HttpClient client, URI goalUri, Strategy strategy, BigDecimal amount,
+                                       AtomicLong conflicts, AtomicLong errors) throws InterruptedException {
+        try {
+            if (strategy == Strategy.CONTRIBUTE) {
+                HttpResponse<String> response = send(client, HttpRequest.newBuilder(URI.create(goalUri + "/contribute"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":" + amount + "}")).build());
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+                return;
+            }
+            while (true) {
+                ObjectNode goal = (ObjectNode) JSON.readTree(send(client, HttpRequest.newBuilder(goalUri).GET().build()).body());
+                goal.put("currentSavings", goal.get("currentSavings").decimalValue().add(amount));
+                if (strategy == Strategy.READ_MODIFY_WRITE) {
+                    goal.remove("version");
+                }
+                HttpResponse<String> response = send(client, HttpRequest.newBuilder(goalUri)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(goal.toString())).build());
+                if (response.statusCode() == 409) {
+                    conflicts.incrementAndGet();
+                    continue;
+                }
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+                return;
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request)
+            throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,171 @@
+package com.rajtymmoney.api.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test of single transaction creates, synchronous against
+ * group-committed ({@code tym.ingest.buffered}). Each mode gets a fresh context; every
+ * {@code ingest.concurrency} level then runs {@code ingest.duration} of back-to-back
+ * POST /api/transactions calls. Afterwards the table must hold exactly the rows that were
+ * answered 200, or the run exits non-zero.
+ * <p>
+ * The throwaway server runs with fsync and synchronous_commit on, so each commit waits for
+ * its WAL flush as in production. With -Dbench.jdbc.url the server's own settings apply;
+ * both are reported with the results.
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.rajtymmoney.api.bench.IngestLoadTest \
+ *     -Dingest.concurrency=1,10,100 -Dingest.duration=PT20S
+ * </pre>
+ */
+public final class IngestLoadTest {
+
+    enum Mode {
+        SYNC,
+        BUFFERED("--tym.ingest.buffered=true");
+
+        private final String[] args;
+
+        Mode(String... args) {
+            this.args = args;
+        }
+    }
+
+    record Result(Mode mode, int concurrency, long created, long rejected, long errors, double throughputPerSecond,
+                  double p50Millis, double p99Millis, double maxMillis, String fsync, String synchronousCommit) {
+    }
+
+    private IngestLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = Arrays.stream(System.getProperty("ingest.concurrency", "1,10,100").split(","))
+                .mapToInt(level -> Integer.parseInt(level.strip()))
+                .toArray();
+        Duration warmup = Duration.parse(System.getProperty("ingest.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("ingest.duration", "PT20S"));
+        File output = new File(System.getProperty("ingest.results", "target/ingest-load-result.json"));
+
+        List<Result> results = new ArrayList<>();
+        boolean lost = false;
+        for (Mode mode : Mode.values()) {
+            try (BenchmarkContext context = BenchmarkContext.start(Map.of("fsync", "on", "synchronous_commit", "on"),
+                    WebApplicationType.SERVLET, mode.args)) {
+                JdbcTemplate jdbc = context.bean(JdbcTemplate.class);
+                String fsync = jdbc.queryForObject("SHOW fsync", String.class);
+                String synchronousCommit = jdbc.queryForObject("SHOW synchronous_commit", String.class);
+                URI base = URI.create("http://localhost:" + context.port());
+                long created = 0;
+                for (int concurrency : levels) {
+                    created += run(base, mode, concurrency, warmup, fsync, synchronousCommit).created();
+                    Result result = run(base, mode, concurrency, duration, fsync, synchronousCommit);
+                    created += result.created();
+                    System.out.println(result);
+                    results.add(result);
+                }
+                Long stored = jdbc.queryForObject("SELECT count(*) FROM transactions", Long.class);
+                if (stored == null || stored != created) {
+                    System.err.println(mode + ": " + created + " creates answered 200 but " + stored + " rows stored");
+                    lost = true;
+                }
+            }
+        }
+        output.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, results);
+        System.out.println("Results written to " + output);
+        if (lost) {
+            System.exit(1);
+        }
+    }
+
+    private static Result run(URI base, Mode mode, int concurrency, Duration duration, String fsync,
+                              String synchronousCommit) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[concurrency][];
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int slot = i;
+            clients.add(Thread.ofVirtual().start(() -> {
+                long[] samples = new long[256];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+                    try {
+                        int status = client.send(nextRequest(base), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == 429 || status == 503) {
+                            rejected.incrementAndGet();
+                            continue;
+                        }
+                        if (status != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                        continue;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - begin;
+                }
+                latencies[slot] = Arrays.copyOf(samples, count);
+            }));
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        if (all.length == 0) {
+            return new Result(mode, concurrency, 0, rejected.get(), errors.get(), 0, 0, 0, 0, fsync, synchronousCommit);
+        }
+        return new Result(mode, concurrency, all.length, rejected.get(), errors.get(), all.length / elapsedSeconds,
+                millis(all[(int) (all.length * 0.50)]), millis(all[Math.min(all.length - 1, (int) (all.length * 0.99))]),
+                millis(all[all.length - 1]), fsync, synchronousCommit);
+    }
+
+    private static HttpRequest nextRequest(URI base) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = """
+                {"type":"%s","amount":%d.%02d,"description":"Card feed %d","category":"%s","date":"%s"}"""
+                .formatted(random.nextInt(10) == 0 ? "INCOME" : "EXPENSE", 1 + random.nextInt(500), random.nextInt(100),
+                        random.nextInt(1000), BenchmarkContext.CATEGORIES[random.nextInt(BenchmarkContext.CATEGORIES.length)],
+                        BenchmarkContext.FIRST_DAY.plusDays(random.nextInt(BenchmarkContext.DAYS)));
+        return HttpRequest.newBuilder(base.resolve("/api/transactions"))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,117 @@
+package com.rajtymmoney.api.bench;
+
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.dto.TransactionPage;
+import com.rajtymmoney.api.model.Transaction;
+import com.rajtymmoney.api.service.AggregationService;
+import com.rajtymmoney.api.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository and service hot paths against a seeded ledger. Inserts grow the table during
+ * the run; at the seeded sizes that drift is well below run-to-run noise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LedgerBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkContext context;
+    private TransactionService transactionService;
+    private AggregationService aggregationService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        context.seed(rows);
+        transactionService = context.bean(TransactionService.class);
+        aggregationService = context.bean(AggregationService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction insertSingle() {
+        return transactionService.addTransaction(randomTransaction());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Transaction> insertBatch() {
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(randomTransaction());
+        }
+        return transactionService.addTransactions(batch);
+    }
+
+    @Benchmark
+    public TransactionPage rangeQueryFirstPage() {
+        LocalDate start = randomMonthStart();
+        TransactionFilter filter = new TransactionFilter(null, null, start, start.plusMonths(1).minusDays(1));
+        return transactionService.getTransactionPage(filter, null, TransactionService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TransactionPage rangeQueryCategoryPage() {
+        LocalDate start = randomMonthStart();
+        TransactionFilter filter = new TransactionFilter(null, randomCategory(), start, start.plusMonths(3));
+        return transactionService.getTransactionPage(filter, null, TransactionService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TransactionAggregate> aggregateByCategoryForYear() {
+        LocalDate start = LocalDate.of(2020 + ThreadLocalRandom.current().nextInt(5), 1, 1);
+        return aggregationService.totalsByCategory(new TransactionFilter(null, null, start, start.plusYears(1).minusDays(1)));
+    }
+
+    @Benchmark
+    public List<TransactionAggregate> aggregateByMonth() {
+        return aggregationService.totalsByPeriod(TransactionFilter.none(), TimeBucket.MONTH);
+    }
+
+    @Benchmark
+    public List<TransactionAggregate> monthlyRollupTotals() {
+        return aggregationService.monthlyTotals(YearMonth.of(2020, 1), YearMonth.of(2024, 12), "EXPENSE", null);
+    }
+
+    private static Transaction randomTransaction() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Transaction transaction = new Transaction();
+        transaction.setType(random.nextInt(10) == 0 ? "INCOME" : "EXPENSE");
+        transaction.setCategory(randomCategory());
+        transaction.setDescription("Benchmark transaction");
+        transaction.setAmount(BigDecimal.valueOf(random.nextLong(100, 50_000), 2));
+        transaction.setDate(BenchmarkContext.FIRST_DAY.plusDays(random.nextInt(BenchmarkContext.DAYS)));
+        return transaction;
+    }
+
+    private static String randomCategory() {
+        return BenchmarkContext.CATEGORIES[ThreadLocalRandom.current().nextInt(BenchmarkContext.CATEGORIES.length)];
+    }
+
+    private static LocalDate randomMonthStart() {
+        return BenchmarkContext.FIRST_DAY.plusMonths(ThreadLocalRandom.current().nextInt(59));
+    }
+}
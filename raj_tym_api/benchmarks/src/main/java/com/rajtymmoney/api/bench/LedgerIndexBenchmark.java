@@ -0,0 +1,64 @@
+package com.rajtymmoney.api.bench;
+
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.service.AggregationService;
+import com.rajtymmoney.api.service.LedgerIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The aggregate queries of {@link LedgerBenchmark}, answered by the in-memory ledger index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LedgerIndexBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkContext context;
+    private AggregationService aggregationService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start(WebApplicationType.NONE, "--tym.ledger-index.enabled=true");
+        context.seed(rows);
+        // Seeding bypasses TransactionService, so rebuild the index from the seeded table.
+        context.bean(LedgerIndex.class).load();
+        aggregationService = context.bean(AggregationService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TransactionAggregate> aggregateByCategoryForYear() {
+        LocalDate start = LocalDate.of(2020 + ThreadLocalRandom.current().nextInt(5), 1, 1);
+        return aggregationService.totalsByCategory(new TransactionFilter(null, null, start, start.plusYears(1).minusDays(1)));
+    }
+
+    @Benchmark
+    public List<TransactionAggregate> aggregateByMonth() {
+        return aggregationService.totalsByPeriod(TransactionFilter.none(), TimeBucket.MONTH);
+    }
+
+    @Benchmark
+    public List<TransactionAggregate> topExpenseCategoriesForMonth() {
+        LocalDate start = BenchmarkContext.FIRST_DAY.plusMonths(ThreadLocalRandom.current().nextInt(59));
+        return aggregationService.topCategories(new TransactionFilter("EXPENSE", null, start, start.plusMonths(1).minusDays(1)), 5);
+    }
+}
@@ -0,0 +1,63 @@
+package com.rajtymmoney.api.bench;
+
+import com.rajtymmoney.api.model.Money;
+import com.rajtymmoney.api.model.MoneyAccumulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory sum/min/max over a column of amounts: BigDecimal arithmetic, as report generation
+ * used to do it, against {@link MoneyAccumulator} over minor units. Run with {@code -prof gc}
+ * to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyAggregationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private BigDecimal[] decimals;
+    private long[] minorUnits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        decimals = new BigDecimal[rows];
+        minorUnits = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            long cents = random.nextLong(100, 5_000_000);
+            decimals[i] = BigDecimal.valueOf(cents, Money.SCALE);
+            minorUnits[i] = cents;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal[] bigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal min = null;
+        BigDecimal max = null;
+        for (BigDecimal amount : decimals) {
+            sum = sum.add(amount);
+            min = min == null || amount.compareTo(min) < 0 ? amount : min;
+            max = max == null || amount.compareTo(max) > 0 ? amount : max;
+        }
+        return new BigDecimal[]{sum, min, max};
+    }
+
+    @Benchmark
+    public MoneyAccumulator minorUnits() {
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+        for (long amount : minorUnits) {
+            accumulator.add(amount);
+        }
+        return accumulator;
+    }
+}
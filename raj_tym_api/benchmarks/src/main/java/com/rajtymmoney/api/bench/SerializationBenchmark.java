@@ -0,0 +1,93 @@
+package com.rajtymmoney.api.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rajtymmoney.api.model.Budget;
+import com.rajtymmoney.api.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the transaction and budget list responses, using the same mapper defaults Spring Boot
+ * applies to the controllers. No database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SerializationBenchmark {
+    private static final TypeReference<List<Transaction>> TRANSACTION_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<Budget>> BUDGET_LIST = new TypeReference<>() {};
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Transaction> transactions;
+    private byte[] json;
+    private List<Budget> budgets;
+    private byte[] budgetJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SplittableRandom random = new SplittableRandom(42);
+        transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i + 1);
+            transaction.setType(i % 10 == 0 ? "INCOME" : "EXPENSE");
+            transaction.setCategory(BenchmarkContext.CATEGORIES[i % BenchmarkContext.CATEGORIES.length]);
+            transaction.setDescription("Seeded transaction " + i);
+            transaction.setAmount(BigDecimal.valueOf(random.nextLong(100, 50_000), 2));
+            transaction.setDate(BenchmarkContext.FIRST_DAY.plusDays(i % BenchmarkContext.DAYS));
+            transactions.add(transaction);
+        }
+        json = objectMapper.writeValueAsBytes(transactions);
+
+        budgets = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Budget budget = new Budget();
+            budget.setId((long) i + 1);
+            budget.setCategory(BenchmarkContext.CATEGORIES[i % BenchmarkContext.CATEGORIES.length]);
+            budget.setAmount(BigDecimal.valueOf(random.nextLong(10_000, 500_000), 2));
+            budget.setStartDate(BenchmarkContext.FIRST_DAY.plusMonths(i % 120));
+            budget.setEndDate(budget.getStartDate().plusMonths(1).minusDays(1));
+            budget.setStatus(i % 4 == 0 ? "INACTIVE" : "ACTIVE");
+            budget.setDescription("Seeded budget " + i);
+            budget.setUpdatedAt(budget.getStartDate().atStartOfDay());
+            budgets.add(budget);
+        }
+        budgetJson = objectMapper.writeValueAsBytes(budgets);
+    }
+
+    @Benchmark
+    public void serializeTransactions() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+
+    @Benchmark
+    public List<Transaction> deserializeTransactions() throws IOException {
+        return objectMapper.readValue(json, TRANSACTION_LIST);
+    }
+
+    @Benchmark
+    public void serializeBudgets() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), budgets);
+    }
+
+    @Benchmark
+    public List<Budget> deserializeBudgets() throws IOException {
+        return objectMapper.readValue(budgetJson, BUDGET_LIST);
+    }
+}
@@ -0,0 +1,184 @@
+package com.rajtymmoney.api.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Optionally puts a {@link ConcurrencyLimitingDataSource} in front of the pool. Set
+ * {@code tym.datasource.max-concurrency} to a value above zero, normally the pool size,
+ * when request handling runs on virtual threads.
+ * <p>
+ * With {@code tym.datasource.replicas.urls} set, read-only transactions go to those
+ * servers through a {@link ReplicaRoutingDataSource}, and {@link ReadYourWritesFilter}
+ * keeps a client that just wrote on the primary.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public static DataSourcePostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        return new DataSourcePostProcessor(environment);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(Environment environment) {
+        Duration window = environment.getProperty("tym.datasource.replicas.sticky-window", Duration.class,
+                Duration.ofSeconds(5));
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.setEnabled(!replicaUrls(environment).isEmpty());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder dataSourceLimiterMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream().forEach(dataSource -> {
+            unwrap(dataSource, ConcurrencyLimitingDataSource.class).ifPresent(limiter ->
+                    Gauge.builder("tym.datasource.limiter.waiting", limiter, ConcurrencyLimitingDataSource::getWaiting)
+                            .description("Threads waiting for a database permit")
+                            .register(registry));
+            unwrap(dataSource, ReplicaRoutingDataSource.class).ifPresent(routing -> {
+                for (ReplicaRoutingDataSource.Replica replica : routing.getReplicas()) {
+                    Gauge.builder("tym.datasource.replica.up", replica, r -> r.isUp() ? 1 : 0)
+                            .tag("replica", replica.getName())
+                            .description("Whether the replica answered its last health check")
+                            .register(registry);
+                    Gauge.builder("tym.datasource.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagSeconds)
+                            .tag("replica", replica.getName())
+                            .description("Replay lag behind the primary at the last health check")
+                            .baseUnit("seconds")
+                            .register(registry);
+                    FunctionCounter.builder("tym.datasource.replica.reads", replica,
+                                    ReplicaRoutingDataSource.Replica::getReads)
+                            .tag("replica", replica.getName())
+                            .description("Read-only transactions served by the replica")
+                            .register(registry);
+                }
+            });
+        });
+    }
+
+    private static List<String> replicaUrls(Environment environment) {
+        return Arrays.stream(environment.getProperty("tym.datasource.replicas.urls", String[].class, new String[0]))
+                .map(String::strip)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    private static ReplicaRoutingDataSource routeReadsToReplicas(DataSource primary, List<String> urls,
+                                                                 Environment environment) {
+        // An open session keeps the connection of its first transaction for all later ones,
+        // so a write after a read in the same request would reach a replica.
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("tym.datasource.replicas.urls needs spring.jpa.open-in-view=false");
+        }
+        Properties driverProperties = new Properties();
+        driverProperties.putAll(Binder.get(environment)
+                .bind("spring.datasource.hikari.data-source-properties", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of()));
+        List<HikariDataSource> pools = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setJdbcUrl(url);
+            config.setUsername(environment.getProperty("tym.datasource.replicas.username",
+                    environment.getProperty("spring.datasource.username")));
+            config.setPassword(environment.getProperty("tym.datasource.replicas.password",
+                    environment.getProperty("spring.datasource.password")));
+            config.setMaximumPoolSize(environment.getProperty("tym.datasource.replicas.pool-size", Integer.class, 10));
+            config.setConnectionTimeout(environment.getProperty("tym.datasource.replicas.connect-timeout",
+                    Duration.class, Duration.ofSeconds(2)).toMillis());
+            config.setReadOnly(true);
+            config.setDataSourceProperties(driverProperties);
+            // A replica that is down at startup is skipped until a health check reaches it.
+            config.setInitializationFailTimeout(-1);
+            pools.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primary, pools,
+                environment.getProperty("tym.datasource.replicas.max-lag", Duration.class, Duration.ofSeconds(5)),
+                environment.getProperty("tym.datasource.replicas.check-interval", Duration.class, Duration.ofSeconds(2)));
+    }
+
+    private static <T> Optional<T> unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? Optional.of(dataSource.unwrap(type)) : Optional.empty();
+        } catch (SQLException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Wraps each DataSource bean in the limiter and the replica router as configured. The
+     * replica pools it opens are not beans of their own, so it closes them on shutdown, after
+     * the beans using them are gone.
+     */
+    public static final class DataSourcePostProcessor implements BeanPostProcessor, DisposableBean {
+        private final Environment environment;
+        private final int maxConcurrency;
+        private final Duration acquireTimeout;
+        private final List<String> replicaUrls;
+        private final List<ReplicaRoutingDataSource> routers = new ArrayList<>();
+
+        DataSourcePostProcessor(Environment environment) {
+            this.environment = environment;
+            this.maxConcurrency = environment.getProperty("tym.datasource.max-concurrency", Integer.class, 0);
+            this.acquireTimeout = environment.getProperty("tym.datasource.acquire-timeout", Duration.class,
+                    Duration.ofSeconds(30));
+            this.replicaUrls = replicaUrls(environment);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                return bean;
+            }
+            // The limiter only counts primary connections; replica pools are sized on their own.
+            if (maxConcurrency > 0) {
+                dataSource = new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+            }
+            if (!replicaUrls.isEmpty()) {
+                ReplicaRoutingDataSource routing = routeReadsToReplicas(dataSource, replicaUrls, environment);
+                synchronized (routers) {
+                    routers.add(routing);
+                }
+                // Fetches the physical connection at its first use, after the transaction
+                // manager has marked the transaction read-only or not.
+                dataSource = new LazyConnectionDataSourceProxy(routing);
+            }
+            return dataSource;
+        }
+
+        @Override
+        public void destroy() {
+            synchronized (routers) {
+                routers.forEach(ReplicaRoutingDataSource::close);
+                routers.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.rajtymmoney.api.config;
+
+import com.rajtymmoney.api.service.ChangeFeedService;
+import com.rajtymmoney.api.service.LedgerIndex;
+import com.rajtymmoney.api.service.ReportResultCache;
+import com.rajtymmoney.api.service.ReportService;
+import com.rajtymmoney.api.service.TransactionSearchIndex;
+import com.rajtymmoney.api.service.TransactionWriteBuffer;
+import com.rajtymmoney.api.service.UserSettingsService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Application meters on top of what Actuator binds by default (HTTP server timers,
+ * repository invocation timers, HikariCP pool gauges and Hibernate statistics).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheAndQueueMetrics(ReportResultCache reportResultCache,
+                                            ReportService reportService,
+                                            UserSettingsService userSettingsService,
+                                            ChangeFeedService changeFeedService,
+                                            TransactionSearchIndex searchIndex) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, reportResultCache.getCache(), "reportResults");
+            FunctionCounter.builder("tym.settings.cache.gets", userSettingsService, UserSettingsService::getHits)
+                    .tag("result", "hit")
+                    .description("User settings reads served from memory")
+                    .register(registry);
+            FunctionCounter.builder("tym.settings.cache.gets", userSettingsService, UserSettingsService::getMisses)
+                    .tag("result", "miss")
+                    .description("User settings reads that went to the database")
+                    .register(registry);
+            Gauge.builder("tym.reports.queue.depth", reportService, ReportService::getQueueDepth)
+                    .description("Report jobs waiting for a worker")
+                    .register(registry);
+            Gauge.builder("tym.changes.subscribers", changeFeedService, ChangeFeedService::getSubscriberCount)
+                    .description("Open change feed streams")
+                    .register(registry);
+            Gauge.builder("tym.search.index.rows", searchIndex, TransactionSearchIndex::getRows)
+                    .description("Transactions held by the in-memory search index (0 when pg_trgm serves search)")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder ledgerIndexMetrics(ObjectProvider<LedgerIndex> ledgerIndex) {
+        return registry -> ledgerIndex.ifAvailable(index -> {
+            Gauge.builder("tym.ledger.index.rows", index, LedgerIndex::getRows)
+                    .description("Transactions held by the in-memory ledger index")
+                    .register(registry);
+            Gauge.builder("tym.ledger.index.memory", index, LedgerIndex::getMemoryBytes)
+                    .description("Bytes used by the ledger index columns")
+                    .baseUnit("bytes")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder writeBufferMetrics(ObjectProvider<TransactionWriteBuffer> writeBuffer) {
+        return registry -> writeBuffer.ifAvailable(buffer -> {
+            Gauge.builder("tym.ingest.queue.depth", buffer, TransactionWriteBuffer::getQueueDepth)
+                    .description("Transaction creates waiting for the writer")
+                    .register(registry);
+            FunctionCounter.builder("tym.ingest.groups", buffer, TransactionWriteBuffer::getGroups)
+                    .description("Commits made by the transaction writer")
+                    .register(registry);
+            FunctionCounter.builder("tym.ingest.rows", buffer, TransactionWriteBuffer::getRows)
+                    .description("Transactions committed by the transaction writer")
+                    .register(registry);
+        });
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        StatementInspector inspector = sql -> {
+            RequestStatistics.statementPrepared();
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityLoadCounter(EntityManagerFactory entityManagerFactory) {
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RequestStatistics.entityLoaded());
+    }
+
+    @Bean
+    public WebMvcConfigurer requestStatisticsInterceptor(MeterRegistry registry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(new AsyncHandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        // An async request was recorded when its first dispatch let go of the
+                        // thread; its ASYNC redispatch only writes the result and is not counted.
+                        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+                            RequestStatistics.begin();
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                               Object handler) {
+                        record(request, RequestStatistics.end());
+                    }
+
+                    @Override
+                    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                                Object handler, Exception ex) {
+                        record(request, RequestStatistics.end());
+                    }
+
+                    private void record(HttpServletRequest request, RequestStatistics.Snapshot snapshot) {
+                        if (snapshot == null) {
+                            return;
+                        }
+                        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+                        DistributionSummary.builder("tym.http.server.requests.statements")
+                                .description("JDBC statements prepared by Hibernate per request")
+                                .tags("method", request.getMethod(), "uri", uri)
+                                .register(registry)
+                                .record(snapshot.statements());
+                        DistributionSummary.builder("tym.http.server.requests.entity.loads")
+                                .description("Entities loaded by Hibernate per request")
+                                .tags("method", request.getMethod(), "uri", uri)
+                                .register(registry)
+                                .record(snapshot.entityLoads());
+                    }
+                });
+            }
+        };
+    }
+}
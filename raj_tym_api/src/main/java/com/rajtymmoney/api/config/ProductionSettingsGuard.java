@@ -0,0 +1,60 @@
+package com.rajtymmoney.api.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fails startup in the prod profile when SQL logging, schema generation or open-in-view
+ * has been switched back on, e.g. by an environment variable left over from development.
+ */
+@Configuration
+@Profile("prod")
+public class ProductionSettingsGuard {
+    private static final Set<String> SCHEMA_CHANGING_DDL = Set.of("create", "create-drop", "create-only", "update", "drop");
+    private static final List<String> SQL_LOGGERS = List.of(
+            "org.hibernate.SQL", "org.hibernate.orm.jdbc.bind", "org.hibernate.type.descriptor.sql.BasicBinder");
+
+    private final Environment environment;
+
+    public ProductionSettingsGuard(Environment environment) {
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    void check() {
+        List<String> problems = new ArrayList<>();
+        if (isTrue("spring.jpa.show-sql")) {
+            problems.add("spring.jpa.show-sql=true");
+        }
+        if (isTrue("spring.jpa.properties.hibernate.format_sql")) {
+            problems.add("spring.jpa.properties.hibernate.format_sql=true");
+        }
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            problems.add("spring.jpa.open-in-view is not false");
+        }
+        String ddlAuto = environment.getProperty("spring.jpa.hibernate.ddl-auto", "none").trim();
+        if (SCHEMA_CHANGING_DDL.contains(ddlAuto)) {
+            problems.add("spring.jpa.hibernate.ddl-auto=" + ddlAuto);
+        }
+        for (String logger : SQL_LOGGERS) {
+            if (LoggerFactory.getLogger(logger).isDebugEnabled()) {
+                problems.add("logger " + logger + " is at DEBUG or TRACE");
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Debug persistence settings are active in the prod profile: "
+                    + String.join(", ", problems));
+        }
+    }
+
+    private boolean isTrue(String key) {
+        return environment.getProperty(key, Boolean.class, false);
+    }
+}
@@ -0,0 +1,91 @@
+package com.rajtymmoney.api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes for clients of replicated reads. A request that may write is served from
+ * the primary and sets a cookie; the same client's reads stay on the primary until the
+ * cookie expires {@code window} later, by when the replicas should have caught up.
+ * <p>
+ * Change feed events carry the WAL position of their write. A client that refetches on an
+ * event sends it back in the {@value #MIN_POSITION_HEADER} header, and the request only
+ * reads from a server that has replayed that far, so it does not get the version before
+ * the change it was told about.
+ * <p>
+ * Every request also reads from a single server, see {@link ReplicaRoutingDataSource#requestScope}.
+ * Both hold on the request thread; work it hands to another thread, such as analytics
+ * partitions or a streaming export, has to carry the scope along with
+ * {@link ReplicaRoutingDataSource#withScope}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final String COOKIE = "TYM_PRIMARY_UNTIL";
+    public static final String MIN_POSITION_HEADER = "Tym-Min-Position";
+    private static final Set<String> SAFE_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(),
+            HttpMethod.OPTIONS.name());
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            // Set before the handler runs: a streamed or async response may be committed early.
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(now + window.toMillis()))
+                    .path("/")
+                    .maxAge(window)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+        }
+        try (ReplicaRoutingDataSource.Pin scope = ReplicaRoutingDataSource.requestScope(write
+                || pinnedUntil(request) > now, minPosition(request))) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static long minPosition(HttpServletRequest request) {
+        String position = request.getHeader(MIN_POSITION_HEADER);
+        if (position == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(position.strip());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,316 @@
+package com.rajtymmoney.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections
+ * everywhere else. Replicas take turns; one is skipped while its last health check failed
+ * or found it more than {@code maxLag} behind, and the primary serves when none is left.
+ * <p>
+ * The decision is made when the connection is fetched, so this has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * transaction manager asks for a connection before it marks the transaction read-only.
+ * <p>
+ * Inside a {@link #requestScope} every read goes to the server the first one went to, so
+ * a request never combines rows from replicas at different points of the primary's history,
+ * e.g. a table version and a body from another replica that is further behind. A scope can
+ * also require a WAL position from {@link #primaryPosition}: only replicas whose last health
+ * check had replayed that far serve it. Work handed to other threads joins the request's
+ * scope through {@link #currentScope} and {@link #withScope}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+    // WAL positions as byte offsets. A server that is not in recovery reports its own
+    // position, so pointing a replica URL at the primary still works.
+    private static final String PRIMARY_LSN_QUERY = "select pg_wal_lsn_diff(pg_current_wal_flush_lsn(), '0/0')";
+    private static final String REPLAY_LSN_QUERY =
+            "select pg_wal_lsn_diff(coalesce(pg_last_wal_replay_lsn(), pg_current_wal_lsn()), '0/0')";
+    // Primary positions kept per replica; at the default interval they span minutes.
+    private static final int MAX_PENDING_SAMPLES = 64;
+    private static final ThreadLocal<RequestScope> SCOPE = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthCheck = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("replica-health-check").daemon().unstarted(runnable));
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                                    Duration checkInterval) {
+        super(primary);
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Keeps this thread's reads on one server until the result is closed, the primary if
+     * {@code primaryOnly}, and a replica only if it has replayed up to {@code minPosition}.
+     */
+    public static Pin requestScope(boolean primaryOnly, long minPosition) {
+        if (SCOPE.get() != null) {
+            return () -> {
+            };
+        }
+        RequestScope scope = new RequestScope();
+        scope.primary = primaryOnly;
+        scope.minPosition = minPosition;
+        SCOPE.set(scope);
+        return SCOPE::remove;
+    }
+
+    /**
+     * This thread's request scope, or null outside one.
+     */
+    public static RequestScope currentScope() {
+        return SCOPE.get();
+    }
+
+    /**
+     * Makes this thread read like the request {@code scope} belongs to until the result is
+     * closed; does nothing for a null scope.
+     */
+    public static Pin withScope(RequestScope scope) {
+        RequestScope previous = SCOPE.get();
+        if (scope == null || scope == previous) {
+            return () -> {
+            };
+        }
+        SCOPE.set(scope);
+        return previous == null ? SCOPE::remove : () -> SCOPE.set(previous);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return super.getConnection();
+        }
+        RequestScope scope = SCOPE.get();
+        if (scope == null) {
+            Connection connection = replicaConnection(null);
+            return connection != null ? connection : super.getConnection();
+        }
+        // Threads sharing the scope wait for the first one's choice.
+        synchronized (scope) {
+            if (!scope.primary) {
+                Connection connection = scope.replica != null
+                        ? scopedReplicaConnection(scope.replica)
+                        : replicaConnection(scope);
+                if (connection != null) {
+                    return connection;
+                }
+                scope.primary = true;
+            }
+        }
+        return super.getConnection();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * The primary's flushed WAL position. A server that has replayed up to it sees every
+     * transaction that committed before the call.
+     */
+    public long primaryPosition() throws SQLException {
+        return queryLsn(getTargetDataSource().getConnection(), PRIMARY_LSN_QUERY);
+    }
+
+    /**
+     * Stops the health checks and closes the replica pools. The primary belongs to its own
+     * bean and is left open.
+     */
+    public void close() {
+        healthCheck.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    private Connection replicaConnection(RequestScope scope) {
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (!replica.isUsable(maxLagSeconds) || scope != null && replica.replayed < scope.minPosition) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                replica.reads.incrementAndGet();
+                if (scope != null) {
+                    scope.replica = replica;
+                }
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The replica the request has read from, even if it fell behind since: it only moves
+     * forward, while another could be further back.
+     */
+    private static Connection scopedReplicaConnection(Replica replica) {
+        if (!replica.isUp()) {
+            return null;
+        }
+        try {
+            Connection connection = replica.pool.getConnection();
+            replica.reads.incrementAndGet();
+            return connection;
+        } catch (SQLException e) {
+            replica.markDown(e);
+            return null;
+        }
+    }
+
+    /**
+     * Measures each replica against the primary's WAL position rather than against what
+     * it received itself: a replica cut off from the primary has replayed all it got and
+     * would look current. Its lag is the age of the oldest primary position it has not
+     * replayed yet, so it grows as soon as the primary writes without it, to the resolution
+     * of the check interval.
+     */
+    private void checkReplicas() {
+        long now = System.nanoTime();
+        Long primaryLsn = null;
+        try {
+            primaryLsn = queryLsn(getTargetDataSource().getConnection(), PRIMARY_LSN_QUERY);
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Could not read the primary's WAL position; replica lag is not updated", e);
+        }
+        for (Replica replica : replicas) {
+            try {
+                long replayed = queryLsn(replica.pool.getConnection(), REPLAY_LSN_QUERY);
+                replica.replayed = replayed;
+                replica.markUp(replica.lagSeconds(primaryLsn, replayed, now), maxLagSeconds);
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    private static long queryLsn(Connection connection, String query) throws SQLException {
+        try (connection;
+             Statement statement = connection.createStatement();
+             ResultSet lsn = statement.executeQuery(query)) {
+            lsn.next();
+            return lsn.getLong(1);
+        }
+    }
+
+    /**
+     * The server a request reads from, shared by the threads working for it.
+     */
+    public static final class RequestScope {
+        private boolean primary;
+        private Replica replica;
+        private long minPosition;
+
+        private RequestScope() {
+        }
+    }
+
+    @FunctionalInterface
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Replica {
+        private final HikariDataSource pool;
+        private final AtomicLong reads = new AtomicLong();
+        // Primary positions not replayed yet, oldest first; only the health check thread uses it.
+        private final ArrayDeque<long[]> pending = new ArrayDeque<>();
+        // WAL position replayed at the last successful check.
+        private volatile long replayed;
+        // Null until the first check.
+        private volatile Boolean up;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return pool.getPoolName();
+        }
+
+        public boolean isUp() {
+            return Boolean.TRUE.equals(up);
+        }
+
+        /**
+         * Seconds behind the primary at the last successful check, NaN before the first.
+         */
+        public double getLagSeconds() {
+            return lagSeconds;
+        }
+
+        public long getReads() {
+            return reads.get();
+        }
+
+        /**
+         * Seconds since the primary was at the oldest position this replica has not
+         * replayed, 0 when it has replayed everything sampled so far.
+         */
+        private double lagSeconds(Long primaryLsn, long replayed, long now) {
+            long[] newest = pending.peekLast();
+            if (primaryLsn != null && primaryLsn > replayed && (newest == null || primaryLsn > newest[0])
+                    && pending.size() < MAX_PENDING_SAMPLES) {
+                pending.addLast(new long[] {primaryLsn, now});
+            }
+            while (!pending.isEmpty() && pending.peekFirst()[0] <= replayed) {
+                pending.removeFirst();
+            }
+            return pending.isEmpty() ? 0 : (now - pending.peekFirst()[1]) / 1e9;
+        }
+
+        private boolean isUsable(double maxLagSeconds) {
+            return isUp() && lagSeconds <= maxLagSeconds;
+        }
+
+        private void markUp(double lag, double maxLagSeconds) {
+            Boolean before = up;
+            boolean wasUsable = isUsable(maxLagSeconds);
+            lagSeconds = lag;
+            up = true;
+            if (before == null || wasUsable != isUsable(maxLagSeconds)) {
+                if (lag > maxLagSeconds) {
+                    log.warn("Replica {} is {} s behind; reading from the others until it catches up", getName(), lag);
+                } else {
+                    log.info("Replica {} is serving reads ({} s behind)", getName(), lag);
+                }
+            }
+        }
+
+        private void markDown(Exception e) {
+            if (!Boolean.FALSE.equals(up)) {
+                log.warn("Replica {} is unavailable; reading from the others until a check succeeds", getName(), e);
+            }
+            up = false;
+        }
+    }
+}
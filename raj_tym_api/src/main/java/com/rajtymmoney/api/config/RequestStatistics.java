@@ -0,0 +1,42 @@
+package com.rajtymmoney.api.config;
+
+/**
+ * Per-thread counters of the JDBC statements Hibernate prepares and the entities it loads
+ * while a request is being handled. Work done on other threads (report workers, streamed
+ * export bodies) is not attributed to the request.
+ */
+public final class RequestStatistics {
+    private static final ThreadLocal<long[]> COUNTERS = new ThreadLocal<>();
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+
+    private RequestStatistics() {
+    }
+
+    public record Snapshot(long statements, long entityLoads) {
+    }
+
+    static void begin() {
+        COUNTERS.set(new long[2]);
+    }
+
+    static Snapshot end() {
+        long[] counters = COUNTERS.get();
+        COUNTERS.remove();
+        return counters == null ? null : new Snapshot(counters[STATEMENTS], counters[ENTITY_LOADS]);
+    }
+
+    static void statementPrepared() {
+        long[] counters = COUNTERS.get();
+        if (counters != null) {
+            counters[STATEMENTS]++;
+        }
+    }
+
+    static void entityLoaded() {
+        long[] counters = COUNTERS.get();
+        if (counters != null) {
+            counters[ENTITY_LOADS]++;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.rajtymmoney.api.controller;
+
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.service.AggregationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/aggregates")
+public class AggregationController {
+    private static final int MAX_TOP_CATEGORIES = 100;
+
+    private final AggregationService aggregationService;
+
+    @Autowired
+    public AggregationController(AggregationService aggregationService) {
+        this.aggregationService = aggregationService;
+    }
+
+    @GetMapping("/by-type")
+    public List<TransactionAggregate> getTotalsByType(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        return aggregationService.totalsByType(new TransactionFilter(null, category, start, end));
+    }
+
+    @GetMapping("/by-category")
+    public List<TransactionAggregate> getTotalsByCategory(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        return aggregationService.totalsByCategory(new TransactionFilter(type, null, start, end));
+    }
+
+    @GetMapping("/by-period")
+    public List<TransactionAggregate> getTotalsByPeriod(
+            @RequestParam(defaultValue = "month") String bucket,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        return aggregationService.totalsByPeriod(new TransactionFilter(type, category, start, end), TimeBucket.from(bucket));
+    }
+
+    @GetMapping("/top-categories")
+    public List<TransactionAggregate> getTopCategories(
+            @RequestParam(defaultValue = "EXPENSE") String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_TOP_CATEGORIES) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_TOP_CATEGORIES);
+        }
+        return aggregationService.topCategories(new TransactionFilter(type, null, start, end), limit);
+    }
+
+    @GetMapping("/monthly")
+    public List<TransactionAggregate> getMonthlyTotals(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category) {
+        return aggregationService.monthlyTotals(from, to, type, category);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,38 @@
+package com.rajtymmoney.api.controller;
+
+import com.rajtymmoney.api.dto.SpendingAnalytics;
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/spending")
+    public SpendingAnalytics getSpending(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "EXPENSE") String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "year") String partition) {
+        return analyticsService.spending(start, end, type, category, TimeBucket.from(partition));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -0,0 +1,40 @@
+package com.rajtymmoney.api.controller;
+
+import com.rajtymmoney.api.model.ArchiveSegment;
+import com.rajtymmoney.api.service.TransactionArchiveService;
+import com.rajtymmoney.api.service.UserSettingsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/archive")
+public class ArchiveController {
+
+    private final TransactionArchiveService archiveService;
+    private final UserSettingsService userSettingsService;
+
+    @Autowired
+    public ArchiveController(TransactionArchiveService archiveService, UserSettingsService userSettingsService) {
+        this.archiveService = archiveService;
+        this.userSettingsService = userSettingsService;
+    }
+
+    @GetMapping
+    public List<ArchiveSegment> getSegments() {
+        return archiveService.segments();
+    }
+
+    // Archives one closed year now, regardless of tym.archive.hot-years.
+    @PostMapping("/{year}")
+    public ArchiveSegment archiveYear(@PathVariable int year) {
+        return archiveService.archive(year, userSettingsService.today());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
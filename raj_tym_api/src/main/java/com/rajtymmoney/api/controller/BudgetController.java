@@ -1,10 +1,15 @@
 package com.rajtymmoney.api.controller;
 
+import com.rajtymmoney.api.dto.BudgetUtilization;
+import com.rajtymmoney.api.event.EntityChangedEvent;
 import com.rajtymmoney.api.model.Budget;
 import com.rajtymmoney.api.repository.BudgetRepository;
+import com.rajtymmoney.api.service.BudgetUtilizationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -17,8 +22,17 @@ public class BudgetController {
     @Autowired
     private BudgetRepository budgetRepository;
 
+    @Autowired
+    private BudgetUtilizationService budgetUtilizationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping
-    public List<Budget> getAllBudgets() {
+    public List<Budget> getAllBudgets(WebRequest request) {
+        if (request.checkNotModified(budgetRepository.findTableVersion().eTag())) {
+            return null;
+        }
         return budgetRepository.findAll();
     }
 
@@ -30,18 +44,39 @@ public class BudgetController {
     }
 
     @GetMapping("/active")
-    public List<Budget> getActiveBudgets() {
+    public List<Budget> getActiveBudgets(WebRequest request) {
+        if (request.checkNotModified(budgetRepository.findTableVersion().eTag())) {
+            return null;
+        }
         return budgetRepository.findByStatus("ACTIVE");
     }
 
+    @GetMapping("/active/utilization")
+    public List<BudgetUtilization> getActiveBudgetUtilization() {
+        return budgetUtilizationService.getActiveUtilization();
+    }
+
+    @GetMapping("/{id}/utilization")
+    public ResponseEntity<BudgetUtilization> getBudgetUtilization(@PathVariable Long id) {
+        return budgetUtilizationService.getUtilization(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/category/{category}")
-    public List<Budget> getBudgetsByCategory(@PathVariable String category) {
+    public List<Budget> getBudgetsByCategory(@PathVariable String category, WebRequest request) {
+        if (request.checkNotModified(budgetRepository.findTableVersion().eTag())) {
+            return null;
+        }
         return budgetRepository.findByCategory(category);
     }
 
     @PostMapping
     public Budget createBudget(@RequestBody Budget budget) {
-        return budgetRepository.save(budget);
+        Budget saved = budgetRepository.save(budget);
+        budgetUtilizationService.invalidate();
+        publishChange(EntityChangedEvent.Action.CREATED, saved.getId());
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -50,7 +85,10 @@ public class BudgetController {
             return ResponseEntity.notFound().build();
         }
         budget.setId(id);
-        return ResponseEntity.ok(budgetRepository.save(budget));
+        Budget saved = budgetRepository.save(budget);
+        budgetUtilizationService.invalidate();
+        publishChange(EntityChangedEvent.Action.UPDATED, id);
+        return ResponseEntity.ok(saved);
     }
 
     @DeleteMapping("/{id}")
@@ -59,6 +97,12 @@ public class BudgetController {
             return ResponseEntity.notFound().build();
         }
         budgetRepository.deleteById(id);
+        budgetUtilizationService.invalidate();
+        publishChange(EntityChangedEvent.Action.DELETED, id);
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    private void publishChange(EntityChangedEvent.Action action, Long id) {
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityChangedEvent.BUDGET, action, id));
+    }
+}
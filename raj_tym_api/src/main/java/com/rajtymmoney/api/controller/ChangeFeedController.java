@@ -0,0 +1,25 @@
+package com.rajtymmoney.api.controller;
+
+import com.rajtymmoney.api.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    // EventSource resends the last id it saw as Last-Event-ID when it reconnects.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeedService.subscribe(lastEventId);
+    }
+}
@@ -1,12 +1,22 @@
 package com.rajtymmoney.api.controller;
 
+import com.rajtymmoney.api.dto.GoalContribution;
+import com.rajtymmoney.api.event.EntityChangedEvent;
 import com.rajtymmoney.api.model.FinancialGoal;
 import com.rajtymmoney.api.repository.FinancialGoalRepository;
+import com.rajtymmoney.api.service.FinancialGoalService;
+import com.rajtymmoney.api.service.VersionRequiredException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/goals")
@@ -16,35 +26,65 @@ public class FinancialGoalController {
     @Autowired
     private FinancialGoalRepository goalRepository;
 
+    @Autowired
+    private FinancialGoalService goalService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping
-    public List<FinancialGoal> getAllGoals() {
+    public List<FinancialGoal> getAllGoals(WebRequest request) {
+        if (request.checkNotModified(goalRepository.findTableVersion().eTag())) {
+            return null;
+        }
         return goalRepository.findAll();
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<FinancialGoal> getGoalById(@PathVariable Long id) {
         return goalRepository.findById(id)
-                .map(ResponseEntity::ok)
+                .map(FinancialGoalController::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/active")
-    public List<FinancialGoal> getActiveGoals() {
+    public List<FinancialGoal> getActiveGoals(WebRequest request) {
+        if (request.checkNotModified(goalRepository.findTableVersion().eTag())) {
+            return null;
+        }
         return goalRepository.findByStatus("ACTIVE");
     }
 
     @PostMapping
     public FinancialGoal createGoal(@RequestBody FinancialGoal goal) {
-        return goalRepository.save(goal);
+        FinancialGoal saved = goalService.createGoal(goal);
+        publishChange(EntityChangedEvent.Action.CREATED, saved.getId());
+        return saved;
     }
 
+    // The version the update is based on comes from the body or from If-Match (the ETag of
+    // GET /{id}); without either the update is refused with 428.
     @PutMapping("/{id}")
-    public ResponseEntity<FinancialGoal> updateGoal(@PathVariable Long id, @RequestBody FinancialGoal goal) {
-        if (!goalRepository.existsById(id)) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<FinancialGoal> updateGoal(@PathVariable Long id, @RequestBody FinancialGoal goal,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            Long version = parseVersion(ifMatch);
+            if (goal.getVersion() != null && !goal.getVersion().equals(version)) {
+                throw new IllegalArgumentException("If-Match and the body name different versions");
+            }
+            goal.setVersion(version);
         }
-        goal.setId(id);
-        return ResponseEntity.ok(goalRepository.save(goal));
+        return changed(goalService.updateGoal(id, goal));
+    }
+
+    @PostMapping("/{id}/contribute")
+    public ResponseEntity<FinancialGoal> contribute(@PathVariable Long id, @RequestBody GoalContribution contribution) {
+        return changed(goalService.addToSavings(id, contribution.amount(), false));
+    }
+
+    @PostMapping("/{id}/withdraw")
+    public ResponseEntity<FinancialGoal> withdraw(@PathVariable Long id, @RequestBody GoalContribution contribution) {
+        return changed(goalService.addToSavings(id, contribution.amount(), true));
     }
 
     @DeleteMapping("/{id}")
@@ -53,6 +93,50 @@ public class FinancialGoalController {
             return ResponseEntity.notFound().build();
         }
         goalRepository.deleteById(id);
+        publishChange(EntityChangedEvent.Action.DELETED, id);
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(ObjectOptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Goal was changed concurrently; reload it and retry");
+    }
+
+    @ExceptionHandler(VersionRequiredException.class)
+    public ResponseEntity<String> handleVersionRequired(VersionRequiredException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private ResponseEntity<FinancialGoal> changed(Optional<FinancialGoal> goal) {
+        goal.ifPresent(saved -> publishChange(EntityChangedEvent.Action.UPDATED, saved.getId()));
+        return goal.map(FinancialGoalController::withETag).orElse(ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<FinancialGoal> withETag(FinancialGoal goal) {
+        return ResponseEntity.ok().eTag("\"" + goal.getVersion() + "\"").body(goal);
+    }
+
+    private static Long parseVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be the goal's ETag, as returned by GET /api/goals/{id}");
+        }
+    }
+
+    private void publishChange(EntityChangedEvent.Action action, Long id) {
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityChangedEvent.GOAL, action, id));
+    }
+}
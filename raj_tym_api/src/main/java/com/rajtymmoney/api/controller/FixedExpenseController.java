@@ -1,8 +1,13 @@
-package com.rajtymmoney.controller;
+package com.rajtymmoney.api.controller;
 
-import com.rajtymmoney.entity.FixedExpense;
-import com.rajtymmoney.service.FixedExpenseService;
+import com.rajtymmoney.api.model.FixedExpense;
+import com.rajtymmoney.api.model.FixedExpensePosting;
+import com.rajtymmoney.api.service.FixedExpensePostingService;
+import com.rajtymmoney.api.service.FixedExpenseService;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,12 +15,15 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/fixed-expenses")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "http://localhost:5173")
 public class FixedExpenseController {
 
     @Autowired
     private FixedExpenseService fixedExpenseService;
 
+    @Autowired
+    private FixedExpensePostingService postingService;
+
     @GetMapping
     public ResponseEntity<List<FixedExpense>> getAllFixedExpenses() {
         return ResponseEntity.ok(fixedExpenseService.getAllFixedExpenses());
@@ -31,6 +39,11 @@ public class FixedExpenseController {
         return ResponseEntity.ok(fixedExpenseService.getFixedExpenseById(id));
     }
 
+    @GetMapping("/{id}/postings")
+    public ResponseEntity<List<FixedExpensePosting>> getPostings(@PathVariable Long id) {
+        return ResponseEntity.ok(fixedExpenseService.getPostings(id));
+    }
+
     @GetMapping("/category/{category}")
     public ResponseEntity<List<FixedExpense>> getFixedExpensesByCategory(@PathVariable String category) {
         return ResponseEntity.ok(fixedExpenseService.getFixedExpensesByCategory(category));
@@ -41,6 +54,12 @@ public class FixedExpenseController {
         return ResponseEntity.ok(fixedExpenseService.createFixedExpense(fixedExpense));
     }
 
+    // Runs the posting job now instead of waiting for the schedule; safe to repeat.
+    @PostMapping("/post-due")
+    public ResponseEntity<List<FixedExpensePosting>> postDue() {
+        return ResponseEntity.ok(postingService.postDue(postingService.today()));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<FixedExpense> updateFixedExpense(
             @PathVariable Long id,
@@ -53,4 +72,19 @@ public class FixedExpenseController {
         fixedExpenseService.deleteFixedExpense(id);
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(EntityNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleConflict(DataIntegrityViolationException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Fixed expenses were posted concurrently, try again");
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
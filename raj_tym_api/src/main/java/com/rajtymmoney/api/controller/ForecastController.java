@@ -0,0 +1,48 @@
+package com.rajtymmoney.api.controller;
+
+import com.rajtymmoney.api.dto.CashFlowForecast;
+import com.rajtymmoney.api.service.ForecastService;
+import com.rajtymmoney.api.service.UserSettingsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/forecast")
+public class ForecastController {
+
+    private final ForecastService forecastService;
+    private final UserSettingsService userSettingsService;
+
+    @Autowired
+    public ForecastController(ForecastService forecastService, UserSettingsService userSettingsService) {
+        this.forecastService = forecastService;
+        this.userSettingsService = userSettingsService;
+    }
+
+    @GetMapping
+    public CashFlowForecast getForecast(
+            @RequestParam(defaultValue = "60") int months,
+            @RequestParam(defaultValue = "10000") int scenarios,
+            @RequestParam(defaultValue = "24") int history,
+            @RequestParam(required = false) BigDecimal startingBalance,
+            @RequestParam(defaultValue = "true") boolean budgets,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return forecastService.forecast(asOf != null ? asOf : userSettingsService.today(), months, scenarios,
+                history, startingBalance, budgets, seed);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
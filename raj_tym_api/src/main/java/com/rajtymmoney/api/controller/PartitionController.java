@@ -0,0 +1,34 @@
+package com.rajtymmoney.api.controller;
+
+import com.rajtymmoney.api.dto.TransactionPartition;
+import com.rajtymmoney.api.service.TransactionPartitionService;
+import com.rajtymmoney.api.service.UserSettingsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/partitions")
+public class PartitionController {
+
+    private final TransactionPartitionService partitionService;
+    private final UserSettingsService userSettingsService;
+
+    @Autowired
+    public PartitionController(TransactionPartitionService partitionService, UserSettingsService userSettingsService) {
+        this.partitionService = partitionService;
+        this.userSettingsService = userSettingsService;
+    }
+
+    @GetMapping
+    public List<TransactionPartition> getPartitions() {
+        return partitionService.partitions();
+    }
+
+    @PostMapping("/maintain")
+    public Map<String, List<String>> maintainPartitions() {
+        return Map.of("created", partitionService.maintain(userSettingsService.today()));
+    }
+}
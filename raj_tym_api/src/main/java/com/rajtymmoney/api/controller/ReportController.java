@@ -1,13 +1,22 @@
 package com.rajtymmoney.api.controller;
 
+import com.rajtymmoney.api.dto.ReportStatus;
+import com.rajtymmoney.api.event.EntityChangedEvent;
 import com.rajtymmoney.api.model.Report;
 import com.rajtymmoney.api.repository.ReportRepository;
+import com.rajtymmoney.api.service.ReportGenerator;
+import com.rajtymmoney.api.service.ReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -17,6 +26,12 @@ public class ReportController {
     @Autowired
     private ReportRepository reportRepository;
 
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping
     public List<Report> getAllReports() {
         return reportRepository.findAll();
@@ -29,6 +44,13 @@ public class ReportController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/status")
+    public ResponseEntity<ReportStatus> getReportStatus(@PathVariable Long id) {
+        return reportRepository.findById(id)
+                .map(report -> ResponseEntity.ok(new ReportStatus(report.getId(), report.getStatus(), report.getGeneratedDate())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/type/{type}")
     public List<Report> getReportsByType(@PathVariable String type) {
         return reportRepository.findByType(type);
@@ -40,8 +62,15 @@ public class ReportController {
     }
 
     @PostMapping
-    public Report createReport(@RequestBody Report report) {
-        return reportRepository.save(report);
+    public ResponseEntity<Report> createReport(@RequestBody Report report) {
+        Report requested = reportService.requestReport(report);
+        publishChange(EntityChangedEvent.Action.CREATED, requested.getId());
+        if (!ReportGenerator.PENDING.equals(requested.getStatus())) {
+            return ResponseEntity.ok(requested);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reports/" + requested.getId() + "/status"))
+                .body(requested);
     }
 
     @PutMapping("/{id}")
@@ -50,7 +79,9 @@ public class ReportController {
             return ResponseEntity.notFound().build();
         }
         report.setId(id);
-        return ResponseEntity.ok(reportRepository.save(report));
+        Report saved = reportRepository.save(report);
+        publishChange(EntityChangedEvent.Action.UPDATED, id);
+        return ResponseEntity.ok(saved);
     }
 
     @DeleteMapping("/{id}")
@@ -59,6 +90,23 @@ public class ReportController {
             return ResponseEntity.notFound().build();
         }
         reportRepository.deleteById(id);
+        publishChange(EntityChangedEvent.Action.DELETED, id);
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    private void publishChange(EntityChangedEvent.Action action, Long id) {
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityChangedEvent.REPORT, action, id));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleQueueFull(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body("Report queue is full, try again later");
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
\ No newline at end of file
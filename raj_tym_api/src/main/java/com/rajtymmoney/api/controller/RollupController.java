@@ -0,0 +1,31 @@
+package com.rajtymmoney.api.controller;
+
+import com.rajtymmoney.api.dto.RollupDrift;
+import com.rajtymmoney.api.service.TransactionRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rollups")
+public class RollupController {
+
+    private final TransactionRollupService rollupService;
+
+    @Autowired
+    public RollupController(TransactionRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @GetMapping("/verify")
+    public List<RollupDrift> verifyRollups() {
+        return rollupService.verify();
+    }
+
+    @PostMapping("/rebuild")
+    public Map<String, Integer> rebuildRollups() {
+        return Map.of("rows", rollupService.rebuild());
+    }
+}
@@ -1,14 +1,36 @@
 package com.rajtymmoney.api.controller;
 
+import com.rajtymmoney.api.config.ReplicaRoutingDataSource;
+import com.rajtymmoney.api.dto.ExportFormat;
+import com.rajtymmoney.api.dto.ImportSummary;
+import com.rajtymmoney.api.dto.TransactionCursor;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.dto.TransactionPage;
 import com.rajtymmoney.api.model.Transaction;
+import com.rajtymmoney.api.service.ShuttingDownException;
+import com.rajtymmoney.api.service.TransactionExportService;
+import com.rajtymmoney.api.service.TransactionImportService;
 import com.rajtymmoney.api.service.TransactionService;
+import com.rajtymmoney.api.service.TransactionWriteBuffer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -16,48 +38,150 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionImportService transactionImportService;
+    private final ObjectProvider<TransactionWriteBuffer> writeBuffer;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionExportService transactionExportService,
+                                 TransactionImportService transactionImportService,
+                                 ObjectProvider<TransactionWriteBuffer> writeBuffer) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.transactionImportService = transactionImportService;
+        this.writeBuffer = writeBuffer;
     }
 
+    // Collection reads answer 304 from the table version alone; returning null after
+    // checkNotModified skips the fetch and serialization.
     @GetMapping
-    public List<Transaction> getAllTransactions() {
+    public List<Transaction> getAllTransactions(WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return transactionService.getAllTransactions();
     }
 
+    @GetMapping("/page")
+    public TransactionPage getTransactionPage(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        TransactionFilter filter = new TransactionFilter(type, category, start, end);
+        return transactionService.getTransactionPage(filter, TransactionCursor.decode(cursor), limit);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        TransactionFilter filter = new TransactionFilter(type, category, start, end);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // The body is written on an async worker; it reads from this request's server.
+        ReplicaRoutingDataSource.RequestScope scope = ReplicaRoutingDataSource.currentScope();
+
+        StreamingResponseBody body = out -> {
+            try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.withScope(scope)) {
+                if (gzip) {
+                    GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                    transactionExportService.export(filter, exportFormat, gzipOut);
+                    gzipOut.finish();
+                } else {
+                    transactionExportService.export(filter, exportFormat, out);
+                }
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
         return ResponseEntity.ok(transactionService.getTransactionById(id));
     }
 
     @GetMapping("/type/{type}")
-    public List<Transaction> getTransactionsByType(@PathVariable String type) {
+    public List<Transaction> getTransactionsByType(@PathVariable String type, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return transactionService.getTransactionsByType(type);
     }
 
     @GetMapping("/category/{category}")
-    public List<Transaction> getTransactionsByCategory(@PathVariable String category) {
+    public List<Transaction> getTransactionsByCategory(@PathVariable String category, WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return transactionService.getTransactionsByCategory(category);
     }
 
     @GetMapping("/date-range")
     public List<Transaction> getTransactionsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         return transactionService.getTransactionsByDateRange(start, end);
     }
 
+    // With tym.ingest.buffered, creates are group-committed and answered once their group
+    // is committed. A body with an id may overwrite a row, so it always goes straight through.
     @PostMapping
-    public Transaction createTransaction(@RequestBody Transaction transaction) {
-        return transactionService.addTransaction(transaction);
+    public CompletableFuture<Transaction> createTransaction(@RequestBody Transaction transaction) {
+        TransactionWriteBuffer buffer = writeBuffer.getIfAvailable();
+        if (buffer == null || transaction.getId() != null) {
+            return CompletableFuture.completedFuture(transactionService.addTransaction(transaction));
+        }
+        return buffer.submit(transaction);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ImportSummary importJson(InputStream body) throws IOException {
+        return transactionImportService.importJson(body);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportSummary importCsv(InputStream body) throws IOException {
+        return transactionImportService.importCsv(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ImportSummary importFile(@RequestParam("file") MultipartFile file) throws IOException {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase();
+        try (InputStream in = file.getInputStream()) {
+            return name.endsWith(".json")
+                    ? transactionImportService.importJson(in)
+                    : transactionImportService.importCsv(in);
+        }
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Transaction> updateTransaction(@PathVariable Long id, @RequestBody Transaction transaction) {
-        transaction.setId(id);
-        return ResponseEntity.ok(transactionService.addTransaction(transaction));
+        return ResponseEntity.ok(transactionService.updateTransaction(id, transaction));
     }
 
     @DeleteMapping("/{id}")
@@ -65,4 +189,62 @@ public class TransactionController {
         transactionService.deleteTransaction(id);
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Whether the Accept-Encoding value admits gzip: named (or as x-gzip) with a non-zero
+     * q-value, or covered by a non-zero {@code *} when gzip is not named at all.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean named = null;
+        boolean wildcard = false;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            boolean accepted = quality(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                named = named == Boolean.TRUE || accepted;
+            } else if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return named != null ? named : wildcard;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private boolean notModified(WebRequest request) {
+        return request.checkNotModified("\"" + transactionService.getTableVersion() + "\"");
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleQueueFull(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Transaction write queue is full, try again later");
+    }
+
+    @ExceptionHandler(ShuttingDownException.class)
+    public ResponseEntity<String> handleShuttingDown(ShuttingDownException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
\ No newline at end of file
@@ -1,47 +1,58 @@
 package com.rajtymmoney.api.controller;
 
 import com.rajtymmoney.api.model.UserSettings;
-import com.rajtymmoney.api.repository.UserSettingsRepository;
+import com.rajtymmoney.api.service.UserSettingsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/settings")
 @CrossOrigin(origins = "http://localhost:5173")
 public class UserSettingsController {
 
     @Autowired
-    private UserSettingsRepository userSettingsRepository;
+    private UserSettingsService userSettingsService;
 
+    // Served from the settings cache; a matching If-None-Match gets 304 without serializing.
     @GetMapping
     public ResponseEntity<UserSettings> getCurrentSettings() {
-        UserSettings settings = userSettingsRepository.findFirstByOrderByIdDesc();
-        return settings != null ? ResponseEntity.ok(settings) : ResponseEntity.notFound().build();
+        return userSettingsService.getCurrentSettings()
+                .map(settings -> ResponseEntity.ok().eTag(eTag(settings)).body(settings))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/cache-stats")
+    public Map<String, Long> getCacheStats() {
+        return Map.of("hits", userSettingsService.getHits(), "misses", userSettingsService.getMisses());
     }
 
     @PostMapping
     public UserSettings createSettings(@RequestBody UserSettings settings) {
-        return userSettingsRepository.save(settings);
+        return userSettingsService.createSettings(settings);
     }
 
     @PutMapping
     public ResponseEntity<UserSettings> updateSettings(@RequestBody UserSettings settings) {
-        UserSettings currentSettings = userSettingsRepository.findFirstByOrderByIdDesc();
-        if (currentSettings != null) {
-            settings.setId(currentSettings.getId());
-            return ResponseEntity.ok(userSettingsRepository.save(settings));
-        }
-        return ResponseEntity.ok(userSettingsRepository.save(settings));
+        return ResponseEntity.ok(userSettingsService.updateSettings(settings));
     }
 
     @DeleteMapping
     public ResponseEntity<Void> deleteSettings() {
-        UserSettings settings = userSettingsRepository.findFirstByOrderByIdDesc();
-        if (settings != null) {
-            userSettingsRepository.delete(settings);
+        if (userSettingsService.deleteSettings()) {
             return ResponseEntity.ok().build();
         }
         return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+
+    private static String eTag(UserSettings settings) {
+        LocalDateTime updatedAt = settings.getUpdatedAt();
+        long micros = updatedAt == null ? 0
+                : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "\"" + settings.getId() + "-" + Long.toHexString(micros) + "\"";
+    }
+}
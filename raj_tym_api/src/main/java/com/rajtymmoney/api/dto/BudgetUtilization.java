@@ -0,0 +1,30 @@
+package com.rajtymmoney.api.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+public record BudgetUtilization(Long budgetId, String category, LocalDate startDate, LocalDate endDate,
+                                BigDecimal amount, BigDecimal spent, BigDecimal remaining,
+                                BigDecimal percentUsed) {
+
+    // Used by the JPQL constructor expression; spent is null when nothing matched.
+    public BudgetUtilization(Long budgetId, String category, LocalDate startDate, LocalDate endDate,
+                             BigDecimal amount, BigDecimal spent) {
+        this(budgetId, category, startDate, endDate, amount,
+                spent == null ? BigDecimal.ZERO : spent,
+                amount.subtract(spent == null ? BigDecimal.ZERO : spent),
+                percent(amount, spent == null ? BigDecimal.ZERO : spent));
+    }
+
+    public boolean covers(String category, LocalDate date) {
+        return this.category.equals(category) && !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+
+    private static BigDecimal percent(BigDecimal amount, BigDecimal spent) {
+        if (amount.signum() == 0) {
+            return null;
+        }
+        return spent.multiply(BigDecimal.valueOf(100)).divide(amount, 2, RoundingMode.HALF_UP);
+    }
+}
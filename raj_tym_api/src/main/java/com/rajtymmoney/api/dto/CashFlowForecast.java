@@ -0,0 +1,32 @@
+package com.rajtymmoney.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Monte Carlo projection produced by ForecastService, starting from the balance at
+ * {@code historyEnd}. {@code balance} has one band per forecast month-end; goal ETAs are
+ * month-ends, null when that percentile of scenarios does not reach the goal within the
+ * horizon. Passing {@code seed} back reproduces the same scenarios.
+ */
+public record CashFlowForecast(LocalDate asOf, int months, int scenarios, long seed, LocalDate historyStart,
+                               LocalDate historyEnd, BigDecimal startingBalance, List<Series> series,
+                               List<BalanceBand> balance, List<GoalEta> goals) {
+
+    /**
+     * One simulated income or expense stream. {@code budgetMonthly} is set when an
+     * active budget replaces the historical mean for part of the horizon.
+     */
+    public record Series(String type, String category, int historyMonths, BigDecimal meanMonthly,
+                         BigDecimal budgetMonthly) {
+    }
+
+    public record BalanceBand(LocalDate date, BigDecimal p10, BigDecimal p25, BigDecimal p50,
+                              BigDecimal p75, BigDecimal p90) {
+    }
+
+    public record GoalEta(Long goalId, String name, BigDecimal remaining, double probability,
+                         LocalDate p10, LocalDate p50, LocalDate p90) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.rajtymmoney.api.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of a contribute or withdraw call: the positive amount to add to or take from the
+ * goal's savings.
+ */
+public record GoalContribution(BigDecimal amount) {
+}
@@ -0,0 +1,9 @@
+package com.rajtymmoney.api.dto;
+
+import java.util.List;
+
+public record ImportSummary(int total, int accepted, int rejected, List<RowError> errors) {
+
+    public record RowError(int row, String message) {
+    }
+}
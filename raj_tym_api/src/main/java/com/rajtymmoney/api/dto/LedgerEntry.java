@@ -0,0 +1,9 @@
+package com.rajtymmoney.api.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The fields of a transaction that aggregation needs, with the amount already in minor units.
+ */
+public record LedgerEntry(long id, String type, String category, LocalDate date, long amountMinor) {
+}
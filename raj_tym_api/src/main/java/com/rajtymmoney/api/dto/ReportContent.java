@@ -0,0 +1,14 @@
+package com.rajtymmoney.api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Serialized into {@code Report.content} once a report job completes.
+ */
+public record ReportContent(String type, LocalDate startDate, LocalDate endDate, List<String> categories,
+                            long transactionCount,
+                            List<TransactionAggregate> totals,
+                            List<TransactionAggregate> byCategory,
+                            List<TransactionAggregate> byMonth) {
+}
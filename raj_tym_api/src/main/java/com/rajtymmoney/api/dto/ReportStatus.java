@@ -0,0 +1,6 @@
+package com.rajtymmoney.api.dto;
+
+import java.time.LocalDate;
+
+public record ReportStatus(Long id, String status, LocalDate generatedDate) {
+}
@@ -0,0 +1,17 @@
+package com.rajtymmoney.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A (month, category, type) group whose rollup row disagrees with the ledger.
+ */
+public interface RollupDrift {
+    LocalDate getMonth();
+    String getCategory();
+    String getType();
+    BigDecimal getExpectedTotal();
+    Long getExpectedCount();
+    BigDecimal getRollupTotal();
+    Long getRollupCount();
+}
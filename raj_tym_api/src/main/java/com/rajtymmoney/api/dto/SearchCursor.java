@@ -0,0 +1,36 @@
+package com.rajtymmoney.api.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Where a search page left off: whether it needed the typo-corrected words, and the
+ * oldest position that phase searched, null when it searched every row. Later pages search
+ * the same rows so they rank the same candidates. Clients only ever see the encoded form.
+ */
+public record SearchCursor(boolean fuzzy, TransactionCursor position) {
+
+    public String encode() {
+        String raw = (fuzzy ? "fuzzy" : "exact") + (position == null ? "" : ":" + position.date() + ":" + position.id());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (!raw[0].equals("fuzzy") && !raw[0].equals("exact") || raw.length != 1 && raw.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            TransactionCursor position = raw.length == 1 ? null
+                    : new TransactionCursor(LocalDate.parse(raw[1]), Long.parseLong(raw[2]));
+            return new SearchCursor(raw[0].equals("fuzzy"), position);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
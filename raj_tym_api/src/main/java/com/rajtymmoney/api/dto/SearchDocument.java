@@ -0,0 +1,9 @@
+package com.rajtymmoney.api.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The fields of a transaction that description search matches and filters on.
+ */
+public record SearchDocument(long id, String type, String category, LocalDate date, String description) {
+}
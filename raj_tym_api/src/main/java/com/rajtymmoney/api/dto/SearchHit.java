@@ -0,0 +1,8 @@
+package com.rajtymmoney.api.dto;
+
+/**
+ * A search match and its rank tier: 2 when a word of the row starts with the query, 1 when
+ * the row contains it elsewhere, 0 when it only contains every query word.
+ */
+public record SearchHit(long id, int tier) {
+}
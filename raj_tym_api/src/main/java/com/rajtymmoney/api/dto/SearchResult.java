@@ -0,0 +1,16 @@
+package com.rajtymmoney.api.dto;
+
+import java.util.List;
+
+/**
+ * Ranked search hits, and whether more rows may match than these: more matched than were
+ * asked for, or the search ran out of time before it had looked at every row. When the
+ * database search stops early, {@code searchedTo} is the oldest position it covered: every
+ * match at or after it is among the hits.
+ */
+public record SearchResult(List<SearchHit> hits, boolean truncated, TransactionCursor searchedTo) {
+
+    public SearchResult(List<SearchHit> hits, boolean truncated) {
+        this(hits, truncated, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.rajtymmoney.api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Multi-period breakdown produced by AnalyticsService. {@code partitions} is how many
+ * independent range queries the result was assembled from.
+ */
+public record SpendingAnalytics(LocalDate startDate, LocalDate endDate, String type, String category,
+                                TimeBucket partitionBy, int partitions,
+                                List<TransactionAggregate> byCategory,
+                                List<TransactionAggregate> byMonth,
+                                List<TransactionAggregate> byMonthAndCategory) {
+}
@@ -0,0 +1,18 @@
+package com.rajtymmoney.api.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Row count and latest {@code updated_at} of a table. Any insert, update or delete
+ * changes at least one of the two, so the pair works as a strong ETag for collection
+ * reads without fetching the rows.
+ */
+public record TableVersion(long rows, LocalDateTime lastUpdated) {
+
+    public String eTag() {
+        long micros = lastUpdated == null ? 0
+                : lastUpdated.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastUpdated.getNano() / 1_000;
+        return "\"" + rows + "-" + Long.toHexString(micros) + "\"";
+    }
+}
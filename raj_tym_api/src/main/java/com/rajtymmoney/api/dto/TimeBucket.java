@@ -0,0 +1,14 @@
+package com.rajtymmoney.api.dto;
+
+public enum TimeBucket {
+    DAY, WEEK, MONTH, YEAR;
+
+    public static TimeBucket from(String value) {
+        for (TimeBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(value)) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported time bucket: " + value);
+    }
+}
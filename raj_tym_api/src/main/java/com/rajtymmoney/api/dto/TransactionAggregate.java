@@ -0,0 +1,23 @@
+package com.rajtymmoney.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Totals for one group of transactions. Only the dimensions the query grouped by
+ * (type, category, period) are set; the others are left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionAggregate(String type, String category, LocalDate period,
+                                   long count, BigDecimal sum, BigDecimal min, BigDecimal max,
+                                   BigDecimal average) {
+
+    public static TransactionAggregate of(String type, String category, LocalDate period,
+                                          long count, BigDecimal sum, BigDecimal min, BigDecimal max) {
+        BigDecimal average = count == 0 ? null : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        return new TransactionAggregate(type, category, period, count, sum, min, max, average);
+    }
+}
@@ -0,0 +1,10 @@
+package com.rajtymmoney.api.dto;
+
+import java.time.LocalDate;
+
+public record TransactionFilter(String type, String category, LocalDate startDate, LocalDate endDate) {
+
+    public static TransactionFilter none() {
+        return new TransactionFilter(null, null, null, null);
+    }
+}
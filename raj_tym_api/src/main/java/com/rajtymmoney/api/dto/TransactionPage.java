@@ -0,0 +1,8 @@
+package com.rajtymmoney.api.dto;
+
+import com.rajtymmoney.api.model.Transaction;
+
+import java.util.List;
+
+public record TransactionPage(List<Transaction> items, String nextCursor) {
+}
@@ -0,0 +1,27 @@
+package com.rajtymmoney.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+/**
+ * A partition of the transactions table and the dates [from, to) it holds; both are null
+ * for the default partition. The row count is the planner's estimate.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionPartition(String name, LocalDate from, LocalDate to, long estimatedRows) {
+
+    @JsonIgnore
+    public boolean isDefault() {
+        return from == null;
+    }
+
+    public boolean overlaps(LocalDate start, LocalDate end) {
+        return !isDefault() && from.isBefore(end) && start.isBefore(to);
+    }
+
+    public boolean within(LocalDate start, LocalDate end) {
+        return !isDefault() && !from.isBefore(start) && !to.isAfter(end);
+    }
+}
@@ -0,0 +1,17 @@
+package com.rajtymmoney.api.dto;
+
+import com.rajtymmoney.api.model.Transaction;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results; pages are numbered from 0. {@code hasMore} tells
+ * whether the ranked results go on past this page. {@code truncated} tells that older rows
+ * than the ranked ones may match as well, because more rows matched than are ranked or the
+ * search ran out of time; a narrower query or filter finds them. {@code cursor} is set when
+ * {@code hasMore} is; later pages asked with it rank the same candidates as this one, so
+ * they neither repeat nor skip rows.
+ */
+public record TransactionSearchPage(String query, int page, int size, boolean hasMore, boolean truncated,
+                                    String cursor, List<Transaction> items) {
+}
@@ -0,0 +1,37 @@
+package com.rajtymmoney.api.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Notice that rows of one entity type were written, as pushed to change feed clients.
+ * Budgets, goals and reports publish it directly; transaction writes are translated
+ * from TransactionChangedEvent. {@code ids} is left out when a batch is too large to
+ * list, in which case clients should refetch. With read replicas, {@code position} is the
+ * primary's WAL position after the write committed; a refetch that sends it back in the
+ * {@code Tym-Min-Position} header is served from a server that has the write.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EntityChangedEvent(String entity, Action action, int count, List<Long> ids, Long position) {
+    public static final String TRANSACTION = "transaction";
+    public static final String BUDGET = "budget";
+    public static final String GOAL = "goal";
+    public static final String REPORT = "report";
+
+    public static final int MAX_IDS = 100;
+
+    public enum Action { CREATED, UPDATED, DELETED }
+
+    public static EntityChangedEvent of(String entity, Action action, Long id) {
+        return new EntityChangedEvent(entity, action, 1, List.of(id), null);
+    }
+
+    public static EntityChangedEvent of(String entity, Action action, List<Long> ids) {
+        return new EntityChangedEvent(entity, action, ids.size(), ids.size() > MAX_IDS ? null : List.copyOf(ids), null);
+    }
+
+    public EntityChangedEvent withPosition(Long position) {
+        return new EntityChangedEvent(entity, action, count, ids, position);
+    }
+}
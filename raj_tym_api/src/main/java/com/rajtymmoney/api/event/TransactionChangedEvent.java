@@ -0,0 +1,43 @@
+package com.rajtymmoney.api.event;
+
+import com.rajtymmoney.api.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by TransactionService inside the writing transaction. Listeners that
+ * keep derived state (caches, indexes, feeds) should react after commit.
+ */
+public record TransactionChangedEvent(List<Change> changes) {
+
+    public enum Action { CREATED, UPDATED, DELETED }
+
+    /**
+     * One written row. {@code before} is null for creates, {@code after} for deletes.
+     */
+    public record Change(Action action, Long id, Entry before, Entry after) {
+    }
+
+    public record Entry(String type, String category, LocalDate date, BigDecimal amount, String description) {
+        public static Entry of(Transaction t) {
+            return new Entry(t.getType(), t.getCategory(), t.getDate(), t.getAmount(), t.getDescription());
+        }
+    }
+
+    public static TransactionChangedEvent created(List<Transaction> transactions) {
+        return new TransactionChangedEvent(transactions.stream()
+                .map(t -> new Change(Action.CREATED, t.getId(), null, Entry.of(t)))
+                .toList());
+    }
+
+    public static TransactionChangedEvent updated(Long id, Entry before, Transaction after) {
+        return new TransactionChangedEvent(List.of(new Change(Action.UPDATED, id, before, Entry.of(after))));
+    }
+
+    public static TransactionChangedEvent deleted(Transaction transaction) {
+        return new TransactionChangedEvent(List.of(
+                new Change(Action.DELETED, transaction.getId(), Entry.of(transaction), null)));
+    }
+}
@@ -0,0 +1,35 @@
+package com.rajtymmoney.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A closed year of transactions moved out of the database into a read-only segment file
+ * under {@code tym.archive.dir}. The row is written in the same database transaction that
+ * removes the year's rows, so a year is always either here or in the table, never both.
+ */
+@Entity
+@Table(name = "transaction_archive_segments", uniqueConstraints = @UniqueConstraint(
+        name = "uk_transaction_archive_segments_year", columnNames = "archive_year"))
+@Data
+public class ArchiveSegment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "archive_year", nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private Long rowCount;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
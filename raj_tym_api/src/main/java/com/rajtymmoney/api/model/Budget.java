@@ -2,11 +2,13 @@ package com.rajtymmoney.api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "budgets")
+@Table(name = "budgets", indexes = @Index(name = "idx_budgets_status", columnList = "status"))
 @Data
 public class Budget {
     @Id
@@ -29,4 +31,8 @@ public class Budget {
     private String status;
 
     private String description;
-} 
\ No newline at end of file
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -2,7 +2,9 @@ package com.rajtymmoney.api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "financial_goals")
@@ -27,4 +29,12 @@ public class FinancialGoal {
     private String status = "ACTIVE"; // ACTIVE, COMPLETED, DELETED
 
     private String description;
-} 
\ No newline at end of file
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
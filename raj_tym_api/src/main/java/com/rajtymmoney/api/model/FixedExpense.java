@@ -0,0 +1,44 @@
+package com.rajtymmoney.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "fixed_expenses", indexes = @Index(name = "idx_fixed_expenses_status_due_date", columnList = "status, due_date"))
+@Data
+public class FixedExpense {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "due_date", nullable = false)
+    private Integer dueDate; // day of month, 1-31; falls on the last day in shorter months
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private String status = "ACTIVE"; // ACTIVE, INACTIVE
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Set by FixedExpenseService whenever the status becomes ACTIVE, in the user's timezone.
+    @Column(nullable = false)
+    private LocalDateTime activatedAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,33 @@
+package com.rajtymmoney.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Records that a fixed expense was written to the ledger for one month. The unique key
+ * on (expense, period) is what makes posting idempotent, also across instances.
+ */
+@Entity
+@Table(name = "fixed_expense_postings", uniqueConstraints = @UniqueConstraint(
+        name = "uk_fixed_expense_postings_expense_period", columnNames = {"fixed_expense_id", "period"}))
+@Data
+public class FixedExpensePosting {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fixed_expense_postings_seq")
+    @SequenceGenerator(name = "fixed_expense_postings_seq", sequenceName = "fixed_expense_postings_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "fixed_expense_id", nullable = false)
+    private Long fixedExpenseId;
+
+    @Column(nullable = false)
+    private LocalDate period; // first day of the month
+
+    @Column(nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime postedAt;
+}
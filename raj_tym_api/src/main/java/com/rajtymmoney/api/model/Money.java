@@ -0,0 +1,31 @@
+package com.rajtymmoney.api.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between decimal amounts and {@code long} counts of minor units (cents), for
+ * aggregation paths only. Entities and the JSON API keep amounts as {@link BigDecimal}, and
+ * rows carry no currency, so there is no money value type; a per-row object would also bring
+ * back the allocation those paths avoid by summing longs.
+ * <p>
+ * Amount columns are {@code numeric(38,2)}; an amount with more decimals is rounded half
+ * away from zero, the way PostgreSQL stores it.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * @throws ArithmeticException if the amount does not fit a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
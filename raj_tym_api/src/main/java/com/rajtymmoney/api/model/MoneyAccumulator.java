@@ -0,0 +1,58 @@
+package com.rajtymmoney.api.model;
+
+/**
+ * Running count, sum, min and max of minor-unit amounts. Adding a value allocates nothing;
+ * convert with {@link Money#toDecimal(long)} once the totals are final.
+ */
+public final class MoneyAccumulator {
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * An accumulator holding totals that were already aggregated elsewhere.
+     */
+    public static MoneyAccumulator of(long count, long sum, long min, long max) {
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+        accumulator.count = count;
+        accumulator.sum = sum;
+        accumulator.min = min;
+        accumulator.max = max;
+        return accumulator;
+    }
+
+    public void add(long minorUnits) {
+        count++;
+        sum = Math.addExact(sum, minorUnits);
+        min = Math.min(min, minorUnits);
+        max = Math.max(max, minorUnits);
+    }
+
+    public void merge(MoneyAccumulator other) {
+        count += other.count;
+        sum = Math.addExact(sum, other.sum);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
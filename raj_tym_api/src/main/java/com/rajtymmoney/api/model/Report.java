@@ -21,6 +21,12 @@ public class Report {
     @Column(nullable = false)
     private LocalDate generatedDate;
 
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private String categories; // Comma-separated, empty means all
+
     @Column(columnDefinition = "TEXT")
     private String content;
 
@@ -0,0 +1,21 @@
+package com.rajtymmoney.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A counter bumped by every committed write to {@code tableName}. It changes in the same
+ * database transaction as the rows, so it is a version of the table's content that a
+ * late-committing writer cannot slip past.
+ */
+@Entity
+@Table(name = "table_versions")
+@Data
+public class TableVersionCounter {
+    @Id
+    @Column(length = 64)
+    private String tableName;
+
+    @Column(nullable = false)
+    private Long version;
+}
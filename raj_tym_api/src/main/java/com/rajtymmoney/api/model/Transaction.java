@@ -2,15 +2,23 @@ package com.rajtymmoney.api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_date_id", columnList = "date, id"),
+        @Index(name = "idx_transactions_type_date_id", columnList = "type, date, id"),
+        @Index(name = "idx_transactions_category_date_id", columnList = "category, date, id"),
+        @Index(name = "idx_transactions_updated_at", columnList = "updated_at")
+})
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,4 +35,8 @@ public class Transaction {
 
     @Column(nullable = false)
     private LocalDate date;
-} 
\ No newline at end of file
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
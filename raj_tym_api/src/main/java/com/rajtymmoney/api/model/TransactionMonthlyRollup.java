@@ -0,0 +1,31 @@
+package com.rajtymmoney.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "transaction_monthly_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_rollup_month_category_type", columnNames = {"rollup_month", "category", "type"}))
+@Data
+public class TransactionMonthlyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_month", nullable = false)
+    private LocalDate month; // first day of the month
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private BigDecimal total;
+
+    @Column(name = "txn_count", nullable = false)
+    private Long count;
+}
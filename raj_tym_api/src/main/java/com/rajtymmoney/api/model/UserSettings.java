@@ -2,6 +2,8 @@ package com.rajtymmoney.api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "user_settings")
@@ -24,4 +26,8 @@ public class UserSettings {
     private String timezone;
 
     private String notificationPreferences;
-} 
\ No newline at end of file
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
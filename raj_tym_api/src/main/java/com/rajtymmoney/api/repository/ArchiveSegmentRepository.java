@@ -0,0 +1,19 @@
+package com.rajtymmoney.api.repository;
+
+import com.rajtymmoney.api.model.ArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+    List<ArchiveSegment> findAllByOrderByYearAsc();
+
+    boolean existsByYear(Integer year);
+
+    // Held until the surrounding transaction ends, so maintenance runs on any instance queue up.
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('transaction_partitions'))) AS l",
+           nativeQuery = true)
+    int lockMaintenanceRuns();
+}
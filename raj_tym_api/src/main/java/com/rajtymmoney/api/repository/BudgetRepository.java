@@ -1,12 +1,39 @@
 package com.rajtymmoney.api.repository;
 
+import com.rajtymmoney.api.dto.BudgetUtilization;
+import com.rajtymmoney.api.dto.TableVersion;
 import com.rajtymmoney.api.model.Budget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     List<Budget> findByStatus(String status);
     List<Budget> findByCategory(String category);
-} 
\ No newline at end of file
+
+    @Query("SELECT new com.rajtymmoney.api.dto.BudgetUtilization(" +
+           "b.id, b.category, b.startDate, b.endDate, b.amount, SUM(t.amount)) " +
+           "FROM Budget b LEFT JOIN Transaction t ON t.category = b.category AND t.type = 'EXPENSE' " +
+           "AND t.date BETWEEN b.startDate AND b.endDate " +
+           "WHERE b.status = :status " +
+           "GROUP BY b.id, b.category, b.startDate, b.endDate, b.amount " +
+           "ORDER BY b.id")
+    List<BudgetUtilization> findUtilizationByStatus(@Param("status") String status);
+
+    @Query("SELECT new com.rajtymmoney.api.dto.BudgetUtilization(" +
+           "b.id, b.category, b.startDate, b.endDate, b.amount, SUM(t.amount)) " +
+           "FROM Budget b LEFT JOIN Transaction t ON t.category = b.category AND t.type = 'EXPENSE' " +
+           "AND t.date BETWEEN b.startDate AND b.endDate " +
+           "WHERE b.id = :id " +
+           "GROUP BY b.id, b.category, b.startDate, b.endDate, b.amount")
+    Optional<BudgetUtilization> findUtilizationById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.rajtymmoney.api.dto.TableVersion(COUNT(b), MAX(b.updatedAt)) FROM Budget b")
+    TableVersion findTableVersion();
+}
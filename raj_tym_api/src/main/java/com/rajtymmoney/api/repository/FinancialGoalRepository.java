@@ -1,11 +1,34 @@
 package com.rajtymmoney.api.repository;
 
+import com.rajtymmoney.api.dto.TableVersion;
 import com.rajtymmoney.api.model.FinancialGoal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface FinancialGoalRepository extends JpaRepository<FinancialGoal, Long> {
     List<FinancialGoal> findByStatus(String status);
-} 
\ No newline at end of file
+
+    /**
+     * Adds {@code delta} to the savings in one statement, so concurrent contributions
+     * cannot overwrite each other. The status follows the new balance between ACTIVE and
+     * COMPLETED. Returns 0 when the goal is missing, deleted, or would go below zero.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE FinancialGoal g SET g.currentSavings = g.currentSavings + :delta, " +
+           "g.status = CASE WHEN g.currentSavings + :delta >= g.targetAmount THEN 'COMPLETED' ELSE 'ACTIVE' END, " +
+           "g.version = g.version + 1, g.updatedAt = :now " +
+           "WHERE g.id = :id AND g.status <> 'DELETED' AND g.currentSavings + :delta >= 0")
+    int addToSavings(@Param("id") Long id, @Param("delta") BigDecimal delta, @Param("now") LocalDateTime now);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.rajtymmoney.api.dto.TableVersion(COUNT(g), MAX(g.updatedAt)) FROM FinancialGoal g")
+    TableVersion findTableVersion();
+}
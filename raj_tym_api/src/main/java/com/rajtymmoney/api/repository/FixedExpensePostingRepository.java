@@ -0,0 +1,17 @@
+package com.rajtymmoney.api.repository;
+
+import com.rajtymmoney.api.model.FixedExpensePosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface FixedExpensePostingRepository extends JpaRepository<FixedExpensePosting, Long> {
+    List<FixedExpensePosting> findByFixedExpenseIdOrderByPeriodDesc(Long fixedExpenseId);
+
+    // Held until the surrounding transaction ends, so posting runs on any instance queue up.
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('fixed_expense_postings'))) AS l",
+           nativeQuery = true)
+    int lockPostingRuns();
+}
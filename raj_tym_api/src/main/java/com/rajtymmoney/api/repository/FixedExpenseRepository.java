@@ -0,0 +1,24 @@
+package com.rajtymmoney.api.repository;
+
+import com.rajtymmoney.api.model.FixedExpense;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface FixedExpenseRepository extends JpaRepository<FixedExpense, Long> {
+    List<FixedExpense> findByStatus(String status);
+    List<FixedExpense> findByCategory(String category);
+
+    // Range scan on (status, due_date); the posting check is a unique-key probe per row.
+    @Query("SELECT e FROM FixedExpense e WHERE e.status = :status AND e.dueDate <= :throughDay " +
+           "AND NOT EXISTS (SELECT p.id FROM FixedExpensePosting p " +
+           "WHERE p.fixedExpenseId = e.id AND p.period = :period) " +
+           "ORDER BY e.id")
+    List<FixedExpense> findUnposted(@Param("status") String status,
+                                    @Param("throughDay") int throughDay,
+                                    @Param("period") LocalDate period);
+}
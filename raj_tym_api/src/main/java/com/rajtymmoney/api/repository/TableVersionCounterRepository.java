@@ -0,0 +1,29 @@
+package com.rajtymmoney.api.repository;
+
+import com.rajtymmoney.api.model.TableVersionCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface TableVersionCounterRepository extends JpaRepository<TableVersionCounter, String> {
+
+    @Transactional(readOnly = true)
+    @Query("SELECT c.version FROM TableVersionCounter c WHERE c.tableName = :tableName")
+    Optional<Long> findVersion(@Param("tableName") String tableName);
+
+    /**
+     * Increments the counter, creating it at 1. Holds the row lock until the surrounding
+     * transaction ends.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO table_versions (table_name, version) VALUES (:tableName, 1) " +
+                   "ON CONFLICT (table_name) DO UPDATE SET version = table_versions.version + 1",
+           nativeQuery = true)
+    void bump(@Param("tableName") String tableName);
+}
@@ -0,0 +1,77 @@
+package com.rajtymmoney.api.repository;
+
+import com.rajtymmoney.api.dto.RollupDrift;
+import com.rajtymmoney.api.model.TransactionMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TransactionMonthlyRollupRepository extends JpaRepository<TransactionMonthlyRollup, Long> {
+
+    @Query("SELECT r FROM TransactionMonthlyRollup r " +
+           "WHERE r.month BETWEEN :fromMonth AND :toMonth AND r.count > 0 " +
+           "ORDER BY r.month, r.type, r.category")
+    List<TransactionMonthlyRollup> findByMonthRange(@Param("fromMonth") LocalDate fromMonth,
+                                                    @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN r.type = 'INCOME' THEN r.total " +
+           "WHEN r.type = 'EXPENSE' THEN -r.total ELSE 0 END), 0) " +
+           "FROM TransactionMonthlyRollup r WHERE r.month <= :toMonth")
+    BigDecimal sumNetThrough(@Param("toMonth") LocalDate toMonth);
+
+    @Modifying
+    @Query(value = "LOCK TABLE transactions IN SHARE MODE", nativeQuery = true)
+    void lockLedgerAgainstWrites();
+
+    /**
+     * Deletes every rollup row except those of archived years, whose ledger rows are no
+     * longer in the table to rebuild them from.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM transaction_monthly_rollups r WHERE NOT EXISTS (" +
+                   "SELECT 1 FROM transaction_archive_segments s " +
+                   "WHERE s.archive_year = CAST(EXTRACT(YEAR FROM r.rollup_month) AS integer))",
+           nativeQuery = true)
+    void deleteUnarchivedRows();
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_monthly_rollups WHERE rollup_month >= :from AND rollup_month < :to",
+           nativeQuery = true)
+    void deleteMonthRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups (rollup_month, category, type, total, txn_count) " +
+                   "SELECT CAST(date_trunc('month', date) AS date), category, type, SUM(amount), COUNT(*) " +
+                   "FROM transactions GROUP BY 1, 2, 3",
+           nativeQuery = true)
+    int rebuildFromLedger();
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups (rollup_month, category, type, total, txn_count) " +
+                   "SELECT CAST(date_trunc('month', date) AS date), category, type, SUM(amount), COUNT(*) " +
+                   "FROM transactions WHERE date >= :from AND date < :to GROUP BY 1, 2, 3",
+           nativeQuery = true)
+    int rebuildFromLedger(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(value = "SELECT COALESCE(l.month, r.rollup_month) AS month, " +
+                   "COALESCE(l.category, r.category) AS category, COALESCE(l.type, r.type) AS type, " +
+                   "l.total AS expectedTotal, l.cnt AS expectedCount, " +
+                   "r.total AS rollupTotal, r.txn_count AS rollupCount " +
+                   "FROM (SELECT CAST(date_trunc('month', date) AS date) AS month, category, type, " +
+                   "SUM(amount) AS total, COUNT(*) AS cnt FROM transactions GROUP BY 1, 2, 3) l " +
+                   "FULL OUTER JOIN transaction_monthly_rollups r " +
+                   "ON r.rollup_month = l.month AND r.category = l.category AND r.type = l.type " +
+                   "WHERE (COALESCE(l.cnt, 0) <> COALESCE(r.txn_count, 0) " +
+                   "OR COALESCE(l.total, 0) <> COALESCE(r.total, 0)) " +
+                   "AND NOT EXISTS (SELECT 1 FROM transaction_archive_segments s " +
+                   "WHERE s.archive_year = CAST(EXTRACT(YEAR FROM COALESCE(l.month, r.rollup_month)) AS integer)) " +
+                   "ORDER BY 1, 2, 3",
+           nativeQuery = true)
+    List<RollupDrift> findDrift();
+}
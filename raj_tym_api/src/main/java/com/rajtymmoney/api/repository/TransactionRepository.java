@@ -1,14 +1,44 @@
 package com.rajtymmoney.api.repository;
 
 import com.rajtymmoney.api.model.Transaction;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
     List<Transaction> findByDateBetween(LocalDate startDate, LocalDate endDate);
+    boolean existsByDateBetween(LocalDate startDate, LocalDate endDate);
     List<Transaction> findByType(String type);
     List<Transaction> findByCategory(String category);
-} 
\ No newline at end of file
+
+    /**
+     * The row, locked FOR UPDATE until the calling transaction ends, so concurrent updates
+     * and deletes of one row see each other's values.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findLockedById(@Param("id") Long id);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_indexes WHERE indexname = 'idx_transactions_search_trgm')",
+           nativeQuery = true)
+    boolean hasSearchIndex();
+
+    @Query("SELECT MIN(t.date) FROM Transaction t")
+    LocalDate findFirstDate();
+
+    /**
+     * Deletes the rows dated in [from, to) without loading them; for rows that are not in
+     * a partition of their own.
+     */
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.date >= :from AND t.date < :to")
+    int deleteDatedBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
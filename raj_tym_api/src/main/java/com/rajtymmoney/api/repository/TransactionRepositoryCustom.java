@@ -0,0 +1,76 @@
+package com.rajtymmoney.api.repository;
+
+import com.rajtymmoney.api.dto.LedgerEntry;
+import com.rajtymmoney.api.dto.SearchDocument;
+import com.rajtymmoney.api.dto.SearchResult;
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionCursor;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.model.Transaction;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+    List<Transaction> findPage(TransactionFilter filter, TransactionCursor after, int limit);
+
+    /**
+     * Streams matching rows in (date, id) order through a server-side cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<Transaction> streamMatching(TransactionFilter filter);
+
+    /**
+     * Like {@link #streamMatching} but projects each row to a {@link LedgerEntry}, so no entities
+     * are hydrated and amounts arrive as minor units without a BigDecimal per row.
+     */
+    Stream<LedgerEntry> streamLedgerEntries(TransactionFilter filter);
+
+    List<TransactionAggregate> aggregateByType(TransactionFilter filter);
+
+    List<TransactionAggregate> aggregateByCategory(TransactionFilter filter);
+
+    List<TransactionAggregate> aggregateByPeriod(TransactionFilter filter, TimeBucket bucket);
+
+    List<TransactionAggregate> aggregateByPeriodAndCategory(TransactionFilter filter, TimeBucket bucket);
+
+    /**
+     * Per-category totals across types, ordered by sum descending.
+     */
+    List<TransactionAggregate> topCategories(TransactionFilter filter, int limit);
+
+    /**
+     * Like {@link #streamLedgerEntries} but projects to the fields description search needs.
+     */
+    Stream<SearchDocument> streamSearchDocuments();
+
+    /**
+     * The {@code limit} most recent rows whose description or category contains every
+     * word of {@code words}, through the pg_trgm index of migration V5. Words shorter than
+     * three characters only match at the start of a word. With {@code excluded} set, rows
+     * containing all of those words are skipped. Rows where a word starts with
+     * {@code phrase} rank first, then rows containing it anywhere, then the rest, each tier
+     * newest first. With {@code oldest} set, rows before it are not searched. Gives up once
+     * {@code budget} has passed if it has found {@code minimum} hits by then; the hits found
+     * are still the most recent matches, and the result is marked truncated. Must run inside
+     * a transaction, which scopes the settings it makes.
+     */
+    SearchResult search(TransactionFilter filter, String phrase, List<String> words, List<String> excluded,
+                        TransactionCursor oldest, int limit, int minimum, Duration budget);
+
+    /**
+     * The search term most similar to {@code word} by pg_trgm similarity, or null if none
+     * reaches {@code threshold}. Must run inside a transaction, which scopes the threshold
+     * setting.
+     */
+    String findSimilarSearchTerm(String word, double threshold);
+
+    /**
+     * Adds terms the vocabulary does not have yet, in sorted order so concurrent writers
+     * cannot deadlock on each other.
+     */
+    void addSearchTerms(Collection<String> terms);
+}
@@ -0,0 +1,496 @@
+package com.rajtymmoney.api.repository;
+
+import com.rajtymmoney.api.dto.LedgerEntry;
+import com.rajtymmoney.api.dto.SearchDocument;
+import com.rajtymmoney.api.dto.SearchHit;
+import com.rajtymmoney.api.dto.SearchResult;
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionCursor;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.model.Money;
+import com.rajtymmoney.api.model.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final BigDecimal MINOR_UNITS_PER_UNIT = BigDecimal.ONE.movePointRight(Money.SCALE);
+    // Must match the indexed expression of idx_transactions_search_trgm (V5) to use it.
+    private static final String SEARCH_TEXT = "(' ' || t.description || ' ' || t.category)";
+    // Rows sampled for how common each search word is.
+    private static final int SEARCH_SAMPLE_ROWS = 1000;
+    // SQLSTATE of a statement cancelled by statement_timeout.
+    private static final String QUERY_CANCELED = "57014";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Transaction> findPage(TransactionFilter filter, TransactionCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        // Only the filters that are present end up in the SQL, so the planner
+        // always sees a plain seek on one of the (..., date, id) indexes.
+        List<Predicate> predicates = filterPredicates(cb, t, filter);
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(t.get("date"), after.date()),
+                    cb.and(cb.equal(t.get("date"), after.date()), cb.lessThan(t.get("id"), after.id()))));
+        }
+
+        query.select(t)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(t.get("date")), cb.desc(t.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Transaction> streamMatching(TransactionFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        query.select(t)
+                .where(filterPredicates(cb, t, filter).toArray(new Predicate[0]))
+                .orderBy(cb.asc(t.get("date")), cb.asc(t.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<LedgerEntry> streamLedgerEntries(TransactionFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LedgerEntry> query = cb.createQuery(LedgerEntry.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        Expression<Long> amountMinor = cb.prod(t.<BigDecimal>get("amount"), MINOR_UNITS_PER_UNIT).as(Long.class);
+        query.select(cb.construct(LedgerEntry.class, t.get("id"), t.get("type"), t.get("category"), t.get("date"), amountMinor))
+                .where(filterPredicates(cb, t, filter).toArray(new Predicate[0]))
+                .orderBy(cb.asc(t.get("date")), cb.asc(t.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<SearchDocument> streamSearchDocuments() {
+        return entityManager.createQuery("select new com.rajtymmoney.api.dto.SearchDocument(" +
+                        "t.id, t.type, t.category, t.date, t.description) from Transaction t order by t.id",
+                        SearchDocument.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public SearchResult search(TransactionFilter filter, String phrase, List<String> words, List<String> excluded,
+                               TransactionCursor oldest, int limit, int minimum, Duration budget) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            // Whether to walk idx_transactions_date_id until enough rows match or to collect
+            // every match through the trigram index depends on how common the words are, so
+            // a generic plan cached for the prepared statement would be wrong for most queries.
+            // Parallel workers take a good part of the budget to start and to cancel.
+            try (PreparedStatement planning = connection.prepareStatement(
+                    "select set_config('plan_cache_mode', 'force_custom_plan', true),"
+                            + " set_config('max_parallel_workers_per_gather', '0', true)")) {
+                planning.execute();
+            }
+
+            // First walk the newest rows for a third of the budget, which finds common words
+            // fast. Once that time is up every further row passes the filter, so the limit
+            // ends the walk; those rows only tell how far it got. One extra row tells
+            // whether more than limit rows match.
+            StringBuilder sql = new StringBuilder("select id, date, hit, ");
+            List<Object> params = new ArrayList<>();
+            appendSearchTier(sql, params, phrase);
+            sql.append(" from (select t.id, t.date, ").append(SEARCH_TEXT).append(" as doc, ");
+            appendSearchMatch(sql, params, words, excluded);
+            sql.append(" as hit from transactions t where (");
+            appendSearchMatch(sql, params, words, excluded);
+            sql.append(" or clock_timestamp() - statement_timestamp() > ? * interval '1 millisecond')");
+            params.add(budget.toMillis() / 3);
+            appendSearchFilter(sql, params, filter, oldest);
+            sql.append(" order by t.date desc, t.id desc limit ?) candidates");
+            params.add(limit + 1);
+
+            List<Match> matches = new ArrayList<>();
+            int walked = 0;
+            TransactionCursor last = null;
+            try (PreparedStatement walk = prepareSearch(connection, sql, params);
+                 ResultSet rows = walk.executeQuery()) {
+                while (rows.next()) {
+                    walked++;
+                    last = new TransactionCursor(rows.getObject(2, LocalDate.class), rows.getLong(1));
+                    if (rows.getBoolean(3)) {
+                        matches.add(new Match(new SearchHit(last.id(), rows.getInt(4)), last));
+                    }
+                }
+            }
+            if (walked == matches.size()) {
+                return rankSearchHits(matches, limit, oldest);
+            }
+
+            // The rows the walk did not reach, through the trigram index. Hitting the statement
+            // timeout leaves the newest matches found so far, unless they are fewer than
+            // minimum: then the rows still missing are looked up without a timeout.
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            List<String> rarestFirst = null;
+            List<Match> older = null;
+            if (remaining > 0) {
+                // Rolling back to it also ends the statement timeout, and keeps a cancelled
+                // statement from failing the transaction.
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    try (PreparedStatement timeout = connection.prepareStatement(
+                            "select set_config('statement_timeout', ?, true)")) {
+                        timeout.setString(1, remaining + "ms");
+                        timeout.execute();
+                    }
+                    rarestFirst = rarestFirst(connection, words);
+                    older = olderMatches(connection, filter, phrase, rarestFirst, excluded, oldest, last,
+                            limit + 1 - matches.size());
+                } catch (SQLException e) {
+                    if (!QUERY_CANCELED.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                } finally {
+                    connection.rollback(savepoint);
+                }
+            }
+            if (older == null && matches.size() < minimum) {
+                int missing = minimum - matches.size();
+                older = olderMatches(connection, filter, phrase,
+                        rarestFirst != null ? rarestFirst : rarestFirst(connection, words), excluded, oldest, last,
+                        missing);
+                matches.addAll(older);
+                return rankSearchHits(matches, limit, older.size() == missing ? older.get(missing - 1).position() : oldest);
+            }
+            if (older == null) {
+                return rankSearchHits(matches, limit, last);
+            }
+            matches.addAll(older);
+            return rankSearchHits(matches, limit, oldest);
+        });
+    }
+
+    // Matches older than after, newest first. The index finds the rows of a rare word fast,
+    // but intersecting several common words takes it tens of milliseconds in which a timeout
+    // cannot stop it. So only the word fewest of the newest rows contain goes through the
+    // index, and the others are checked on the rows it finds.
+    private static List<Match> olderMatches(Connection connection, TransactionFilter filter, String phrase,
+                                            List<String> rarestFirst, List<String> excluded,
+                                            TransactionCursor oldest, TransactionCursor after, int limit)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder("select id, date, ");
+        List<Object> params = new ArrayList<>();
+        appendSearchTier(sql, params, phrase);
+        sql.append(" from (select t.id, t.date, ").append(SEARCH_TEXT)
+                .append(" as doc from transactions t where ");
+        appendAllWordsMatch(sql, params, rarestFirst.subList(0, 1));
+        for (String word : rarestFirst.subList(1, rarestFirst.size())) {
+            sql.append(" and strpos(lower(").append(SEARCH_TEXT).append("), ?) > 0");
+            params.add(wordNeedle(word));
+        }
+        if (excluded != null) {
+            sql.append(" and not (");
+            appendAllWordsMatch(sql, params, excluded);
+            sql.append(")");
+        }
+        appendSearchFilter(sql, params, filter, oldest);
+        sql.append(" and (t.date, t.id) < (?, ?)")
+                .append(" order by t.date desc, t.id desc limit ?) candidates");
+        Collections.addAll(params, after.date(), after.id(), limit);
+        List<Match> matches = new ArrayList<>();
+        try (PreparedStatement rest = prepareSearch(connection, sql, params);
+             ResultSet rows = rest.executeQuery()) {
+            while (rows.next()) {
+                TransactionCursor position = new TransactionCursor(rows.getObject(2, LocalDate.class), rows.getLong(1));
+                matches.add(new Match(new SearchHit(position.id(), rows.getInt(3)), position));
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public String findSimilarSearchTerm(String word, double threshold) {
+        entityManager.createNativeQuery("select set_config('pg_trgm.similarity_threshold', :threshold, true)")
+                .setParameter("threshold", Double.toString(threshold))
+                .getSingleResult();
+        @SuppressWarnings("unchecked")
+        List<String> terms = entityManager.createNativeQuery("select term from transaction_search_terms" +
+                        " where term % :word order by similarity(term, :word) desc, term limit 1", String.class)
+                .setParameter("word", word)
+                .getResultList();
+        return terms.isEmpty() ? null : terms.get(0);
+    }
+
+    @Override
+    public void addSearchTerms(Collection<String> terms) {
+        // Terms are runs of letters, so a blank separates them safely.
+        entityManager.createNativeQuery("insert into transaction_search_terms (term)" +
+                        " select distinct term from unnest(string_to_array(:terms, ' ')) as term order by term" +
+                        " on conflict do nothing")
+                .setParameter("terms", String.join(" ", terms))
+                .executeUpdate();
+    }
+
+    @Override
+    public List<TransactionAggregate> aggregateByType(TransactionFilter filter) {
+        return aggregate(filter, "t.type").stream()
+                .map(row -> toAggregate(row, row.get(0, String.class), null, null))
+                .toList();
+    }
+
+    @Override
+    public List<TransactionAggregate> aggregateByCategory(TransactionFilter filter) {
+        return aggregate(filter, "t.type, t.category").stream()
+                .map(row -> toAggregate(row, row.get(0, String.class), row.get(1, String.class), null))
+                .toList();
+    }
+
+    @Override
+    public List<TransactionAggregate> aggregateByPeriod(TransactionFilter filter, TimeBucket bucket) {
+        String period = "cast(trunc(t.date, " + bucket.name().toLowerCase() + ") as LocalDate)";
+        return aggregate(filter, period + ", t.type").stream()
+                .map(row -> toAggregate(row, row.get(1, String.class), null, row.get(0, LocalDate.class)))
+                .toList();
+    }
+
+    @Override
+    public List<TransactionAggregate> aggregateByPeriodAndCategory(TransactionFilter filter, TimeBucket bucket) {
+        String period = "cast(trunc(t.date, " + bucket.name().toLowerCase() + ") as LocalDate)";
+        return aggregate(filter, period + ", t.type, t.category").stream()
+                .map(row -> toAggregate(row, row.get(1, String.class), row.get(2, String.class), row.get(0, LocalDate.class)))
+                .toList();
+    }
+
+    @Override
+    public List<TransactionAggregate> topCategories(TransactionFilter filter, int limit) {
+        return aggregate(filter, "t.category", "sum(t.amount) desc, t.category", limit).stream()
+                .map(row -> toAggregate(row, filter.type(), row.get(0, String.class), null))
+                .toList();
+    }
+
+    private List<Tuple> aggregate(TransactionFilter filter, String keys) {
+        return aggregate(filter, keys, keys, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Runs a GROUP BY over the given key expressions. The key columns come first in
+     * each tuple, followed by count, sum, min and max of the amount.
+     */
+    private List<Tuple> aggregate(TransactionFilter filter, String keys, String orderBy, int limit) {
+        StringBuilder hql = new StringBuilder("select ").append(keys)
+                .append(", count(t), sum(t.amount), min(t.amount), max(t.amount) from Transaction t where 1 = 1");
+        if (filter.type() != null) {
+            hql.append(" and t.type = :type");
+        }
+        if (filter.category() != null) {
+            hql.append(" and t.category = :category");
+        }
+        if (filter.startDate() != null) {
+            hql.append(" and t.date >= :startDate");
+        }
+        if (filter.endDate() != null) {
+            hql.append(" and t.date <= :endDate");
+        }
+        hql.append(" group by ").append(keys).append(" order by ").append(orderBy);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(hql.toString(), Tuple.class);
+        if (filter.type() != null) {
+            query.setParameter("type", filter.type());
+        }
+        if (filter.category() != null) {
+            query.setParameter("category", filter.category());
+        }
+        if (filter.startDate() != null) {
+            query.setParameter("startDate", filter.startDate());
+        }
+        if (filter.endDate() != null) {
+            query.setParameter("endDate", filter.endDate());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private TransactionAggregate toAggregate(Tuple row, String type, String category, LocalDate period) {
+        int n = row.getElements().size();
+        return TransactionAggregate.of(type, category, period,
+                row.get(n - 4, Long.class),
+                row.get(n - 3, BigDecimal.class),
+                row.get(n - 2, BigDecimal.class),
+                row.get(n - 1, BigDecimal.class));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Rank tiers as documented on SearchHit, over the doc column of the candidates.
+    private static void appendSearchTier(StringBuilder sql, List<Object> params, String phrase) {
+        String literal = escapeLike(phrase);
+        sql.append("case when doc ilike ? escape '\\' then 2 when doc ilike ? escape '\\' then 1 else 0 end");
+        Collections.addAll(params, "% " + literal + "%", "%" + literal + "%");
+    }
+
+    private static void appendSearchMatch(StringBuilder sql, List<Object> params, List<String> words,
+                                          List<String> excluded) {
+        // The planner multiplies the selectivities of the words, badly underestimating words
+        // that occur together. The redundant in-order pattern gives it one it can estimate.
+        sql.append("(");
+        if (words.size() > 1) {
+            sql.append(SEARCH_TEXT).append(" ilike ? escape '\\' or ");
+            params.add("%" + String.join("%", words.stream().map(
+                    word -> escapeLike(wordNeedle(word))).toList()) + "%");
+        }
+        appendAllWordsMatch(sql, params, words);
+        sql.append(")");
+        if (excluded != null) {
+            sql.append(" and not (");
+            appendAllWordsMatch(sql, params, excluded);
+            sql.append(")");
+        }
+    }
+
+    // Search text starts with a blank, so "% word%" also matches a word at the very start.
+    private static void appendAllWordsMatch(StringBuilder sql, List<Object> params, List<String> words) {
+        for (int i = 0; i < words.size(); i++) {
+            sql.append(i == 0 ? "" : " and ").append(SEARCH_TEXT).append(" ilike ? escape '\\'");
+            params.add("%" + escapeLike(wordNeedle(words.get(i))) + "%");
+        }
+    }
+
+    // What the lower-cased search text contains where the word matches.
+    private static String wordNeedle(String word) {
+        return word.length() < 3 ? " " + word : word;
+    }
+
+    // The words by how few of the newest rows contain them, the longer one first on ties.
+    private static List<String> rarestFirst(Connection connection, List<String> words) throws SQLException {
+        if (words.size() == 1) {
+            return words;
+        }
+        StringBuilder sql = new StringBuilder("select ");
+        List<Object> params = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("count(*) filter (where strpos(doc, ?) > 0)");
+            params.add(wordNeedle(words.get(i)));
+        }
+        sql.append(" from (select lower(").append(SEARCH_TEXT).append(") as doc from transactions t")
+                .append(" order by t.date desc, t.id desc limit ").append(SEARCH_SAMPLE_ROWS).append(") sample");
+        Map<String, Long> counts = new HashMap<>();
+        try (PreparedStatement sample = prepareSearch(connection, sql, params);
+             ResultSet row = sample.executeQuery()) {
+            row.next();
+            for (int i = 0; i < words.size(); i++) {
+                counts.put(words.get(i), row.getLong(i + 1));
+            }
+        }
+        return words.stream()
+                .sorted(Comparator.comparing((String word) -> counts.get(word))
+                        .thenComparing(Comparator.comparingInt(String::length).reversed()))
+                .toList();
+    }
+
+    private static void appendSearchFilter(StringBuilder sql, List<Object> params, TransactionFilter filter,
+                                           TransactionCursor oldest) {
+        if (filter.type() != null) {
+            sql.append(" and t.type = ?");
+            params.add(filter.type());
+        }
+        if (filter.category() != null) {
+            sql.append(" and t.category = ?");
+            params.add(filter.category());
+        }
+        if (filter.startDate() != null) {
+            sql.append(" and t.date >= ?");
+            params.add(filter.startDate());
+        }
+        if (filter.endDate() != null) {
+            sql.append(" and t.date <= ?");
+            params.add(filter.endDate());
+        }
+        if (oldest != null) {
+            sql.append(" and (t.date, t.id) >= (?, ?)");
+            Collections.addAll(params, oldest.date(), oldest.id());
+        }
+    }
+
+    private static PreparedStatement prepareSearch(Connection connection, CharSequence sql, List<Object> params)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql.toString());
+        for (int i = 0; i < params.size(); i++) {
+            statement.setObject(i + 1, params.get(i));
+        }
+        return statement;
+    }
+
+    // The newest limit matches ranked; they arrive newest first. Every match at or after
+    // searchedTo is among them, and null means every row was searched.
+    private static SearchResult rankSearchHits(List<Match> matches, int limit, TransactionCursor searchedTo) {
+        if (matches.size() > limit) {
+            searchedTo = matches.get(limit - 1).position();
+        }
+        List<SearchHit> ranked = new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())).stream()
+                .map(Match::hit)
+                .toList());
+        // Stable, so each tier stays newest first.
+        ranked.sort(Comparator.comparingInt(SearchHit::tier).reversed());
+        return new SearchResult(ranked, searchedTo != null, searchedTo);
+    }
+
+    // A search hit and where it sits in the (date DESC, id DESC) order.
+    private record Match(SearchHit hit, TransactionCursor position) {
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Transaction> t, TransactionFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.type() != null) {
+            predicates.add(cb.equal(t.get("type"), filter.type()));
+        }
+        if (filter.category() != null) {
+            predicates.add(cb.equal(t.get("category"), filter.category()));
+        }
+        if (filter.startDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("date"), filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("date"), filter.endDate()));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,146 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.dto.LedgerEntry;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.model.Money;
+import com.rajtymmoney.api.model.MoneyAccumulator;
+import com.rajtymmoney.api.repository.TransactionMonthlyRollupRepository;
+import com.rajtymmoney.api.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Ledger aggregates, answered from the in-memory {@link LedgerIndex} when it is enabled
+ * and loaded, and by GROUP BY queries otherwise. SUPPORTS keeps index-served calls from
+ * checking out a connection. The index holds archived years; without it, archived rows
+ * matching the filter are summed from their segment files and added to the query's groups.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class AggregationService {
+    private static final Comparator<TransactionAggregate> GROUP_ORDER =
+            Comparator.comparing(TransactionAggregate::period, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(TransactionAggregate::type, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(TransactionAggregate::category, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionMonthlyRollupRepository rollupRepository;
+    private final ObjectProvider<LedgerIndex> ledgerIndex;
+
+    public List<TransactionAggregate> totalsByType(TransactionFilter filter) {
+        LedgerIndex index = readyIndex();
+        return index != null ? index.totalsByType(filter)
+                : withArchived(transactionRepository.aggregateByType(filter), filter,
+                        row -> new Group(row.type(), null, null), GROUP_ORDER);
+    }
+
+    public List<TransactionAggregate> totalsByCategory(TransactionFilter filter) {
+        LedgerIndex index = readyIndex();
+        return index != null ? index.totalsByCategory(filter)
+                : withArchived(transactionRepository.aggregateByCategory(filter), filter,
+                        row -> new Group(row.type(), row.category(), null), GROUP_ORDER);
+    }
+
+    public List<TransactionAggregate> totalsByPeriod(TransactionFilter filter, TimeBucket bucket) {
+        LedgerIndex index = readyIndex();
+        return index != null ? index.totalsByPeriod(filter, bucket)
+                : withArchived(transactionRepository.aggregateByPeriod(filter, bucket), filter,
+                        row -> new Group(row.type(), null, LedgerIndex.truncate(row.date(), bucket)), GROUP_ORDER);
+    }
+
+    public List<TransactionAggregate> totalsByPeriodAndCategory(TransactionFilter filter, TimeBucket bucket) {
+        LedgerIndex index = readyIndex();
+        return index != null ? index.totalsByPeriodAndCategory(filter, bucket)
+                : withArchived(transactionRepository.aggregateByPeriodAndCategory(filter, bucket), filter,
+                        row -> new Group(row.type(), row.category(), LedgerIndex.truncate(row.date(), bucket)),
+                        GROUP_ORDER);
+    }
+
+    public List<TransactionAggregate> topCategories(TransactionFilter filter, int limit) {
+        LedgerIndex index = readyIndex();
+        if (index != null) {
+            return index.topCategories(filter, limit);
+        }
+        if (transactionArchive.segments(filter).isEmpty()) {
+            return transactionRepository.topCategories(filter, limit);
+        }
+        // Every category, since one outside the table's top ones can make it with its archived rows.
+        return withArchived(transactionRepository.topCategories(filter, Integer.MAX_VALUE), filter,
+                row -> new Group(filter.type(), row.category(), null),
+                Comparator.comparing(TransactionAggregate::sum).reversed().thenComparing(TransactionAggregate::category))
+                .stream().limit(limit).toList();
+    }
+
+    /**
+     * Monthly sums and counts per type and category, read from the rollup table rather
+     * than the ledger. Min and max are not tracked there and are left empty.
+     */
+    public List<TransactionAggregate> monthlyTotals(YearMonth from, YearMonth to, String type, String category) {
+        return rollupRepository.findByMonthRange(from.atDay(1), to.atDay(1)).stream()
+                .filter(r -> type == null || type.equals(r.getType()))
+                .filter(r -> category == null || category.equals(r.getCategory()))
+                .map(r -> TransactionAggregate.of(r.getType(), r.getCategory(), r.getMonth(),
+                        r.getCount(), r.getTotal(), null, null))
+                .toList();
+    }
+
+    /**
+     * Income minus expenses over every month up to and including {@code through}, from
+     * the rollup table.
+     */
+    public BigDecimal netTotalThrough(YearMonth through) {
+        return rollupRepository.sumNetThrough(through.atDay(1));
+    }
+
+    /**
+     * Adds the archived rows matching {@code filter} to the groups of a query result,
+     * {@code groupOf} naming the group an archived row belongs to.
+     */
+    private List<TransactionAggregate> withArchived(List<TransactionAggregate> table, TransactionFilter filter,
+                                                    Function<LedgerEntry, Group> groupOf,
+                                                    Comparator<TransactionAggregate> order) {
+        if (transactionArchive.segments(filter).isEmpty()) {
+            return table;
+        }
+        Map<Group, MoneyAccumulator> totals = new HashMap<>();
+        for (TransactionAggregate row : table) {
+            totals.put(new Group(row.type(), row.category(), row.period()), MoneyAccumulator.of(row.count(),
+                    Money.toMinorUnits(row.sum()), Money.toMinorUnits(row.min()), Money.toMinorUnits(row.max())));
+        }
+        try (Stream<LedgerEntry> rows = transactionArchive.ledgerEntries(filter)) {
+            rows.forEach(row -> totals.computeIfAbsent(groupOf.apply(row), g -> new MoneyAccumulator())
+                    .add(row.amountMinor()));
+        }
+        return totals.entrySet().stream()
+                .map(e -> TransactionAggregate.of(e.getKey().type(), e.getKey().category(), e.getKey().period(),
+                        e.getValue().getCount(), Money.toDecimal(e.getValue().getSum()),
+                        Money.toDecimal(e.getValue().getMin()), Money.toDecimal(e.getValue().getMax())))
+                .sorted(order)
+                .toList();
+    }
+
+    private LedgerIndex readyIndex() {
+        LedgerIndex index = ledgerIndex.getIfAvailable();
+        return index != null && index.isReady() ? index : null;
+    }
+
+    private record Group(String type, String category, LocalDate period) {
+    }
+}
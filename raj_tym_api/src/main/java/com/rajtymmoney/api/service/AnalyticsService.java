@@ -0,0 +1,169 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.config.ReplicaRoutingDataSource;
+import com.rajtymmoney.api.dto.SpendingAnalytics;
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.model.Money;
+import com.rajtymmoney.api.model.MoneyAccumulator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Long-range spending breakdowns. The date range is cut into month or year partitions
+ * that are queried and reduced in parallel on a dedicated fork/join pool, then merged.
+ * The pool size caps how many partition queries hold a connection at once.
+ */
+@Service
+public class AnalyticsService {
+    static final int MAX_PARTITIONS = 1200;
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::month)
+            .thenComparing(Key::type, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Key::category, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final AggregationService aggregationService;
+    private final ForkJoinPool pool;
+
+    public AnalyticsService(AggregationService aggregationService,
+                            @Value("${tym.analytics.parallelism:4}") int parallelism) {
+        this.aggregationService = aggregationService;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("analytics-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    public SpendingAnalytics spending(LocalDate start, LocalDate end, String type, String category,
+                                      TimeBucket partitionBy) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end are required");
+        }
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end must not be before start");
+        }
+        if (partitionBy != TimeBucket.MONTH && partitionBy != TimeBucket.YEAR) {
+            throw new IllegalArgumentException("Partitions must be MONTH or YEAR");
+        }
+        List<TransactionFilter> partitions = partition(new TransactionFilter(type, category, start, end), partitionBy);
+        Map<Key, MoneyAccumulator> merged = pool.invoke(new PartitionTask(partitions, 0, partitions.size(),
+                ReplicaRoutingDataSource.currentScope()));
+
+        Map<Key, MoneyAccumulator> byMonthAndCategory = new TreeMap<>(KEY_ORDER);
+        Map<Key, MoneyAccumulator> byCategory = new TreeMap<>(KEY_ORDER);
+        Map<Key, MoneyAccumulator> byMonth = new TreeMap<>(KEY_ORDER);
+        merged.forEach((key, sums) -> {
+            byMonthAndCategory.put(key, sums);
+            byCategory.computeIfAbsent(new Key(LocalDate.MIN, key.type(), key.category()), k -> new MoneyAccumulator())
+                    .merge(sums);
+            byMonth.computeIfAbsent(new Key(key.month(), key.type(), ""), k -> new MoneyAccumulator()).merge(sums);
+        });
+        return new SpendingAnalytics(start, end, type, category, partitionBy, partitions.size(),
+                toAggregates(byCategory, false, true), toAggregates(byMonth, true, false),
+                toAggregates(byMonthAndCategory, true, true));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Splits the filter's date range at calendar month or year boundaries.
+     */
+    static List<TransactionFilter> partition(TransactionFilter filter, TimeBucket partitionBy) {
+        ChronoUnit unit = partitionBy == TimeBucket.YEAR ? ChronoUnit.YEARS : ChronoUnit.MONTHS;
+        LocalDate first = partitionBy == TimeBucket.YEAR
+                ? filter.startDate().withDayOfYear(1)
+                : filter.startDate().withDayOfMonth(1);
+        if (unit.between(first, filter.endDate()) >= MAX_PARTITIONS) {
+            throw new IllegalArgumentException("Range spans more than " + MAX_PARTITIONS + " partitions");
+        }
+        List<TransactionFilter> partitions = new ArrayList<>();
+        for (LocalDate from = first; !from.isAfter(filter.endDate()); from = from.plus(1, unit)) {
+            LocalDate to = from.plus(1, unit).minusDays(1);
+            partitions.add(new TransactionFilter(filter.type(), filter.category(),
+                    from.isBefore(filter.startDate()) ? filter.startDate() : from,
+                    to.isAfter(filter.endDate()) ? filter.endDate() : to));
+        }
+        return partitions;
+    }
+
+    private static List<TransactionAggregate> toAggregates(Map<Key, MoneyAccumulator> totals, boolean withMonth,
+                                                           boolean withCategory) {
+        List<TransactionAggregate> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, sums) -> rows.add(TransactionAggregate.of(key.type(),
+                withCategory ? key.category() : null, withMonth ? key.month() : null, sums.getCount(),
+                Money.toDecimal(sums.getSum()), Money.toDecimal(sums.getMin()), Money.toDecimal(sums.getMax()))));
+        return rows;
+    }
+
+    private record Key(LocalDate month, String type, String category) {
+    }
+
+    /**
+     * Halves the partition list until one partition is left, queries it, and merges the
+     * partial results on the way back up. Queries read from the calling request's server.
+     */
+    private final class PartitionTask extends RecursiveTask<Map<Key, MoneyAccumulator>> {
+        private final List<TransactionFilter> partitions;
+        private final int from;
+        private final int to;
+        private final ReplicaRoutingDataSource.RequestScope scope;
+
+        PartitionTask(List<TransactionFilter> partitions, int from, int to,
+                      ReplicaRoutingDataSource.RequestScope scope) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.scope = scope;
+        }
+
+        @Override
+        protected Map<Key, MoneyAccumulator> compute() {
+            if (to - from == 1) {
+                return query(partitions.get(from));
+            }
+            int mid = (from + to) >>> 1;
+            PartitionTask right = new PartitionTask(partitions, mid, to, scope);
+            right.fork();
+            Map<Key, MoneyAccumulator> left = new PartitionTask(partitions, from, mid, scope).compute();
+            Map<Key, MoneyAccumulator> rightResult = right.join();
+            // Partitions never share a month, but merging keeps this correct for any split.
+            rightResult.forEach((key, sums) -> left.merge(key, sums, (a, b) -> {
+                a.merge(b);
+                return a;
+            }));
+            return left;
+        }
+
+        private Map<Key, MoneyAccumulator> query(TransactionFilter partition) {
+            Map<Key, MoneyAccumulator> result = new HashMap<>();
+            List<TransactionAggregate> rows;
+            try (ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.withScope(scope)) {
+                rows = aggregationService.totalsByPeriodAndCategory(partition, TimeBucket.MONTH);
+            }
+            for (TransactionAggregate row : rows) {
+                result.put(new Key(row.period(), row.type(), row.category()), MoneyAccumulator.of(row.count(),
+                        Money.toMinorUnits(row.sum()), Money.toMinorUnits(row.min()), Money.toMinorUnits(row.max())));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.LedgerEntry;
+import com.rajtymmoney.api.dto.SearchDocument;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.model.Money;
+import com.rajtymmoney.api.model.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * One archived year of transactions as a read-only columnar file, mapped into memory and
+ * read in place. Rows are sorted by (date, id). Dates are stored as the day of the year,
+ * amounts in minor units, {@code updated_at} in epoch microseconds, and type, category and
+ * description as codes into per-file dictionaries. Every column stays fixed-width, so a row
+ * is read by offset without decoding anything before it, and a date range is found by
+ * binary search on the day column. A last section lists the rows in id order, so a single
+ * row is found by binary search on id as well.
+ * <p>
+ * Layout, big-endian: magic, year, row count, then the offset of each section; the seven
+ * columns in {@link Section} order; then the three dictionaries, each a count, the end
+ * offset of every entry and the UTF-8 bytes; then the id order.
+ */
+public final class ArchiveSegmentFile {
+    private static final long MAGIC = 0x54594d5345473031L; // "TYMSEG01"
+    private static final int HEADER_BYTES = 16 + Section.values().length * 8;
+
+    private enum Section { DAYS, IDS, AMOUNTS, UPDATED, TYPES, CATEGORIES, DESCRIPTIONS,
+        TYPE_NAMES, CATEGORY_NAMES, DESCRIPTION_NAMES, ID_ORDER }
+
+    private final Path path;
+    private final int year;
+    private final int rows;
+    private final long firstDay;
+    private final ShortBuffer days;
+    private final LongBuffer ids;
+    // Row numbers sorted by id.
+    private final IntBuffer idOrder;
+    private final long minId;
+    private final long maxId;
+    private final LongBuffer amounts;
+    private final LongBuffer updated;
+    private final ShortBuffer types;
+    private final ShortBuffer categories;
+    private final IntBuffer descriptions;
+    private final String[] typeNames;
+    private final String[] categoryNames;
+    private final Map<String, Integer> typeCodes;
+    private final Map<String, Integer> categoryCodes;
+    private final IntBuffer descriptionEnds;
+    private final ByteBuffer descriptionBytes;
+
+    private ArchiveSegmentFile(Path path, ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+            throw new IllegalStateException("Not an archive segment: " + path);
+        }
+        this.path = path;
+        this.year = buffer.getInt(8);
+        this.rows = buffer.getInt(12);
+        this.firstDay = LocalDate.ofYearDay(year, 1).toEpochDay();
+        this.days = section(buffer, Section.DAYS).asShortBuffer();
+        this.ids = section(buffer, Section.IDS).asLongBuffer();
+        this.amounts = section(buffer, Section.AMOUNTS).asLongBuffer();
+        this.updated = section(buffer, Section.UPDATED).asLongBuffer();
+        this.types = section(buffer, Section.TYPES).asShortBuffer();
+        this.categories = section(buffer, Section.CATEGORIES).asShortBuffer();
+        this.descriptions = section(buffer, Section.DESCRIPTIONS).asIntBuffer();
+        this.typeNames = names(section(buffer, Section.TYPE_NAMES));
+        this.categoryNames = names(section(buffer, Section.CATEGORY_NAMES));
+        this.typeCodes = codes(typeNames);
+        this.categoryCodes = codes(categoryNames);
+        ByteBuffer descriptionNames = section(buffer, Section.DESCRIPTION_NAMES);
+        int count = descriptionNames.getInt(0);
+        this.descriptionEnds = descriptionNames.slice(4, count * 4).asIntBuffer();
+        this.descriptionBytes = descriptionNames.slice(4 + count * 4, descriptionNames.capacity() - 4 - count * 4);
+        if (days.capacity() != rows || ids.capacity() != rows || descriptions.capacity() != rows) {
+            throw new IllegalStateException("Truncated archive segment: " + path);
+        }
+        this.idOrder = section(buffer, Section.ID_ORDER).asIntBuffer();
+        if (idOrder.capacity() != rows) {
+            throw new IllegalStateException("Truncated archive segment: " + path);
+        }
+        this.minId = rows == 0 ? 0 : ids.get(idOrder.get(0));
+        this.maxId = rows == 0 ? -1 : ids.get(idOrder.get(rows - 1));
+    }
+
+    /**
+     * Maps the file read-only. The mapping outlives the channel and is released with the
+     * returned object.
+     */
+    public static ArchiveSegmentFile open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ArchiveSegmentFile(path, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open archive segment " + path, e);
+        }
+    }
+
+    /**
+     * Writes {@code rows}, which must all fall in {@code year} and arrive in (date, id)
+     * order, to {@code target}. The file is written under a temporary name, forced to disk
+     * and then renamed, so {@code target} never holds a partial segment.
+     *
+     * @return the number of rows and bytes written
+     */
+    public static Written write(Path target, int year, Iterator<Transaction> rows) {
+        Columns columns = new Columns(year);
+        while (rows.hasNext()) {
+            columns.add(rows.next());
+        }
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            long size;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                size = columns.writeTo(channel);
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Written(columns.size, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive segment " + target, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                // Overwritten by the next attempt for the same year.
+            }
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public boolean overlaps(TransactionFilter filter) {
+        return (filter.startDate() == null || filter.startDate().getYear() <= year)
+                && (filter.endDate() == null || filter.endDate().getYear() >= year);
+    }
+
+    /**
+     * The rows a filter selects: a contiguous range by date, narrowed further by type and
+     * category code. Empty when the file has no such type or category at all.
+     */
+    public Scan scan(TransactionFilter filter) {
+        int type = filter.type() == null ? -1 : typeCodes.getOrDefault(filter.type(), -2);
+        int category = filter.category() == null ? -1 : categoryCodes.getOrDefault(filter.category(), -2);
+        if (type == -2 || category == -2 || !overlaps(filter)) {
+            return new Scan(this, 0, 0, -1, -1);
+        }
+        int from = filter.startDate() == null ? 0 : firstRowOnOrAfter(filter.startDate().toEpochDay());
+        int to = filter.endDate() == null ? rows : firstRowOnOrAfter(filter.endDate().toEpochDay() + 1);
+        return new Scan(this, from, Math.max(from, to), type, category);
+    }
+
+    /**
+     * Number of rows ordered before (date, id), i.e. the position a newest-first page
+     * continuing after that row starts from.
+     */
+    public int rowsBefore(LocalDate date, long id) {
+        long day = date.toEpochDay();
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long midDay = epochDay(mid);
+            if (midDay < day || (midDay == day && ids.get(mid) < id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Row holding {@code id}, or -1. Ids outside the file's id range return at once; others
+     * are found by binary search through the id order.
+     */
+    public int find(long id) {
+        if (id < minId || id > maxId) {
+            return -1;
+        }
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int row = idOrder.get(mid);
+            long midId = ids.get(row);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    public long epochDay(int row) {
+        return firstDay + days.get(row);
+    }
+
+    public long id(int row) {
+        return ids.get(row);
+    }
+
+    public String type(int row) {
+        return typeNames[types.get(row)];
+    }
+
+    public String category(int row) {
+        return categoryNames[categories.get(row)];
+    }
+
+    public int descriptionCode(int row) {
+        return descriptions.get(row);
+    }
+
+    public int categoryCode(int row) {
+        return categories.get(row);
+    }
+
+    public String description(int row) {
+        int code = descriptions.get(row);
+        int start = code == 0 ? 0 : descriptionEnds.get(code - 1);
+        byte[] bytes = new byte[descriptionEnds.get(code) - start];
+        descriptionBytes.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Transaction transaction(int row) {
+        Transaction transaction = new Transaction();
+        transaction.setId(ids.get(row));
+        transaction.setType(type(row));
+        transaction.setAmount(Money.toDecimal(amounts.get(row)));
+        transaction.setDescription(description(row));
+        transaction.setCategory(category(row));
+        transaction.setDate(LocalDate.ofEpochDay(epochDay(row)));
+        long micros = updated.get(row);
+        transaction.setUpdatedAt(LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC));
+        return transaction;
+    }
+
+    public LedgerEntry ledgerEntry(int row) {
+        return new LedgerEntry(ids.get(row), type(row), category(row), LocalDate.ofEpochDay(epochDay(row)),
+                amounts.get(row));
+    }
+
+    public long amountMinor(int row) {
+        return amounts.get(row);
+    }
+
+    public SearchDocument searchDocument(int row) {
+        return new SearchDocument(ids.get(row), type(row), category(row), LocalDate.ofEpochDay(epochDay(row)),
+                description(row));
+    }
+
+    private int firstRowOnOrAfter(long day) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDay(mid) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static ByteBuffer section(ByteBuffer buffer, Section section) {
+        int start = (int) buffer.getLong(16 + section.ordinal() * 8);
+        int end = section.ordinal() + 1 < Section.values().length
+                ? (int) buffer.getLong(16 + (section.ordinal() + 1) * 8)
+                : buffer.capacity();
+        return buffer.slice(start, end - start);
+    }
+
+    /**
+     * Row numbers 0 to {@code rows - 1} sorted by the id in that row.
+     */
+    private static int[] idOrder(LongBuffer ids, int rows) {
+        return IntStream.range(0, rows).boxed()
+                .sorted(Comparator.comparingLong(ids::get))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static String[] names(ByteBuffer section) {
+        int count = section.getInt(0);
+        String[] names = new String[count];
+        int start = 0;
+        int bytesAt = 4 + count * 4;
+        for (int i = 0; i < count; i++) {
+            int end = section.getInt(4 + i * 4);
+            byte[] bytes = new byte[end - start];
+            section.get(bytesAt + start, bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+            start = end;
+        }
+        return names;
+    }
+
+    private static Map<String, Integer> codes(String[] names) {
+        Map<String, Integer> codes = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            codes.put(names[i], i);
+        }
+        return codes;
+    }
+
+    public record Written(int rows, long sizeBytes) {
+    }
+
+    /**
+     * A row range of one file plus the type and category codes rows must carry (-1 for any).
+     */
+    public record Scan(ArchiveSegmentFile file, int from, int to, int type, int category) {
+
+        public boolean matches(int row) {
+            return (type < 0 || file.types.get(row) == type) && (category < 0 || file.categories.get(row) == category);
+        }
+    }
+
+    /**
+     * Rows collected in memory while a year is read from the database, since the
+     * dictionaries are only complete once every row has been seen.
+     */
+    private static final class Columns {
+        private final int year;
+        private final long firstDay;
+        private short[] days = new short[1024];
+        private long[] ids = new long[1024];
+        private long[] amounts = new long[1024];
+        private long[] updated = new long[1024];
+        private short[] types = new short[1024];
+        private short[] categories = new short[1024];
+        private int[] descriptions = new int[1024];
+        private int size;
+        private final Map<String, Integer> typeNames = new LinkedHashMap<>();
+        private final Map<String, Integer> categoryNames = new LinkedHashMap<>();
+        private final Map<String, Integer> descriptionNames = new LinkedHashMap<>();
+
+        Columns(int year) {
+            this.year = year;
+            this.firstDay = LocalDate.ofYearDay(year, 1).toEpochDay();
+        }
+
+        void add(Transaction t) {
+            if (t.getDate().getYear() != year) {
+                throw new IllegalArgumentException("Transaction " + t.getId() + " is not dated " + year);
+            }
+            if (size == ids.length) {
+                int capacity = size * 2;
+                days = Arrays.copyOf(days, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                updated = Arrays.copyOf(updated, capacity);
+                types = Arrays.copyOf(types, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+            }
+            LocalDateTime updatedAt = t.getUpdatedAt();
+            days[size] = (short) (t.getDate().toEpochDay() - firstDay);
+            ids[size] = t.getId();
+            amounts[size] = Money.toMinorUnits(t.getAmount());
+            updated[size] = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+            types[size] = shortCode(typeNames, t.getType());
+            categories[size] = shortCode(categoryNames, t.getCategory());
+            descriptions[size] = descriptionNames.computeIfAbsent(t.getDescription(), n -> descriptionNames.size());
+            size++;
+        }
+
+        long writeTo(FileChannel channel) throws IOException {
+            List<ByteBuffer> sections = new ArrayList<>();
+            sections.add(shorts(days));
+            sections.add(longs(ids));
+            sections.add(longs(amounts));
+            sections.add(longs(updated));
+            sections.add(shorts(types));
+            sections.add(shorts(categories));
+            ByteBuffer descriptionCodes = ByteBuffer.allocate(size * 4);
+            descriptionCodes.asIntBuffer().put(descriptions, 0, size);
+            sections.add(descriptionCodes);
+            sections.add(dictionary(typeNames));
+            sections.add(dictionary(categoryNames));
+            sections.add(dictionary(descriptionNames));
+            ByteBuffer idOrder = ByteBuffer.allocate(size * 4);
+            idOrder.asIntBuffer().put(ArchiveSegmentFile.idOrder(LongBuffer.wrap(ids, 0, size), size));
+            sections.add(idOrder);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putLong(MAGIC).putInt(year).putInt(size);
+            long offset = HEADER_BYTES;
+            for (ByteBuffer section : sections) {
+                header.putLong(offset);
+                offset += section.capacity();
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Archive segment for " + year + " would exceed 2 GB");
+            }
+            channel.write(header.flip());
+            for (ByteBuffer section : sections) {
+                section.clear();
+                while (section.hasRemaining()) {
+                    channel.write(section);
+                }
+            }
+            return offset;
+        }
+
+        private ByteBuffer shorts(short[] values) {
+            ByteBuffer buffer = ByteBuffer.allocate(size * 2);
+            buffer.asShortBuffer().put(values, 0, size);
+            return buffer;
+        }
+
+        private ByteBuffer longs(long[] values) {
+            ByteBuffer buffer = ByteBuffer.allocate(size * 8);
+            buffer.asLongBuffer().put(values, 0, size);
+            return buffer;
+        }
+
+        private static short shortCode(Map<String, Integer> names, String name) {
+            int code = names.computeIfAbsent(name, n -> names.size());
+            if (code > Short.MAX_VALUE) {
+                throw new IllegalStateException("More than " + Short.MAX_VALUE + " distinct values in one year");
+            }
+            return (short) code;
+        }
+
+        private static ByteBuffer dictionary(Map<String, Integer> names) {
+            List<byte[]> encoded = new ArrayList<>(names.size());
+            int total = 0;
+            for (String name : names.keySet()) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                total += bytes.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(4 + names.size() * 4 + total);
+            buffer.putInt(names.size());
+            int end = 0;
+            for (byte[] bytes : encoded) {
+                end += bytes.length;
+                buffer.putInt(end);
+            }
+            for (byte[] bytes : encoded) {
+                buffer.put(bytes);
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.BudgetUtilization;
+import com.rajtymmoney.api.event.TransactionChangedEvent;
+import com.rajtymmoney.api.repository.BudgetRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Spent/remaining figures for budgets. Utilization of all ACTIVE budgets is computed
+ * with one grouped query and kept as a snapshot until a budget changes or a committed
+ * expense lands in the category and window of one of the cached budgets.
+ */
+@Service
+@RequiredArgsConstructor
+public class BudgetUtilizationService {
+    private static final String ACTIVE = "ACTIVE";
+
+    private final BudgetRepository budgetRepository;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Snapshot> activeSnapshot = new AtomicReference<>();
+
+    @Transactional(readOnly = true)
+    public List<BudgetUtilization> getActiveUtilization() {
+        Snapshot snapshot = activeSnapshot.get();
+        if (snapshot != null && snapshot.generation() == generation.get()) {
+            return snapshot.utilization();
+        }
+        // Tag the result with the generation seen before querying: if an invalidation
+        // races with the query, the stored snapshot is already stale and gets ignored.
+        long seen = generation.get();
+        List<BudgetUtilization> utilization = budgetRepository.findUtilizationByStatus(ACTIVE);
+        activeSnapshot.set(new Snapshot(seen, utilization));
+        return utilization;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BudgetUtilization> getUtilization(Long budgetId) {
+        Snapshot snapshot = activeSnapshot.get();
+        if (snapshot != null && snapshot.generation() == generation.get()) {
+            Optional<BudgetUtilization> cached = snapshot.utilization().stream()
+                    .filter(u -> u.budgetId().equals(budgetId))
+                    .findFirst();
+            if (cached.isPresent()) {
+                return cached;
+            }
+        }
+        return budgetRepository.findUtilizationById(budgetId);
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        Snapshot snapshot = activeSnapshot.get();
+        if (snapshot == null || snapshot.generation() != generation.get()) {
+            invalidate();
+            return;
+        }
+        boolean affected = event.changes().stream()
+                .flatMap(change -> Stream.of(change.before(), change.after()))
+                .filter(Objects::nonNull)
+                .anyMatch(entry -> snapshot.utilization().stream()
+                        .anyMatch(u -> u.covers(entry.category(), entry.date())));
+        if (affected) {
+            invalidate();
+        }
+    }
+
+    private record Snapshot(long generation, List<BudgetUtilization> utilization) {
+    }
+}
@@ -0,0 +1,273 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.config.ReplicaRoutingDataSource;
+import com.rajtymmoney.api.event.EntityChangedEvent;
+import com.rajtymmoney.api.event.TransactionChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes committed writes to Server-Sent Events subscribers as {@code change} events.
+ *
+ * <p>Every change gets a sequence number and is kept in a replay ring of the last
+ * {@code tym.change-feed.replay-size} changes, so a client reconnecting with
+ * Last-Event-ID picks up where it left off. Each subscriber has its own bounded buffer
+ * drained by its own sender; when a slow client lets it fill up, the backlog is dropped
+ * and replaced by a single {@code reset} event telling the client to refetch. A reset is
+ * also sent when the requested resume point is no longer in the ring or predates a
+ * restart. New streams start with a {@code ready} event whose id is the resume point.
+ *
+ * <p>With read replicas, each change carries the primary's WAL position after its commit,
+ * for the client to send back when it refetches; see {@link EntityChangedEvent}.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+    private static final String CHANGE = "change";
+    private static final String RESET = "reset";
+    private static final String READY = "ready";
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final int replaySize;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    // Null without read replicas.
+    private final ReplicaRoutingDataSource routing;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("change-feed-", 1).factory());
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this.
+    private final Deque<Change> replay = new ArrayDeque<>();
+    private long lastSequence;
+
+    public ChangeFeedService(@Value("${tym.change-feed.replay-size:1000}") int replaySize,
+                             @Value("${tym.change-feed.subscriber-buffer:1000}") int bufferSize,
+                             @Value("${tym.change-feed.timeout:PT30M}") Duration timeout,
+                             @Value("${tym.change-feed.heartbeat:PT30S}") Duration heartbeatInterval,
+                             DataSource dataSource) throws SQLException {
+        this.replaySize = replaySize;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.routing = dataSource.isWrapperFor(ReplicaRoutingDataSource.class)
+                ? dataSource.unwrap(ReplicaRoutingDataSource.class)
+                : null;
+        // Comments on idle streams keep proxies from closing them and surface dead clients.
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleWithFixedDelay(() -> subscribers.forEach(Subscriber::ping),
+                interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream. With a {@code lastEventId} from this instance that is still in the
+     * replay ring, the changes after it are sent first; any other id gets a reset.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Replay and registration happen under the publish lock so nothing falls between them.
+        synchronized (this) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                subscriber.offer(new Change(lastSequence, READY, null));
+            } else {
+                long resumeAfter = resumePoint(lastEventId);
+                long oldestKept = replay.isEmpty() ? lastSequence + 1 : replay.peekFirst().sequence();
+                if (resumeAfter < 0 || resumeAfter > lastSequence || resumeAfter + 1 < oldestKept) {
+                    subscriber.offer(new Change(lastSequence, RESET, null));
+                } else {
+                    replay.stream().filter(change -> change.sequence() > resumeAfter).forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        publish(event);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        Map<EntityChangedEvent.Action, List<Long>> ids = new EnumMap<>(EntityChangedEvent.Action.class);
+        for (TransactionChangedEvent.Change change : event.changes()) {
+            ids.computeIfAbsent(EntityChangedEvent.Action.valueOf(change.action().name()), a -> new ArrayList<>())
+                    .add(change.id());
+        }
+        ids.forEach((action, changed) -> publish(EntityChangedEvent.of(EntityChangedEvent.TRANSACTION, action, changed)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void publish(EntityChangedEvent event) {
+        // Read after the commit, outside the publish lock.
+        append(routing == null ? event : event.withPosition(primaryPosition()));
+    }
+
+    private synchronized void append(EntityChangedEvent event) {
+        Change change = new Change(++lastSequence, CHANGE, event);
+        replay.addLast(change);
+        if (replay.size() > replaySize) {
+            replay.removeFirst();
+        }
+        subscribers.forEach(subscriber -> subscriber.offer(change));
+    }
+
+    private Long primaryPosition() {
+        try {
+            return routing.primaryPosition();
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Could not read the primary's WAL position for a change event", e);
+            return null;
+        }
+    }
+
+    private long resumePoint(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !instance.equals(lastEventId.substring(0, dash))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Change(long sequence, String name, EntityChangedEvent event) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+
+        // Guarded by this.
+        private final Deque<Change> buffer = new ArrayDeque<>();
+        private long droppedThrough = -1;
+        private boolean pingDue;
+        private boolean draining;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Change change) {
+            if (closed) {
+                return;
+            }
+            synchronized (this) {
+                if (RESET.equals(change.name()) || droppedThrough >= 0 || buffer.size() >= bufferSize) {
+                    // Whatever is buffered is superseded by the reset the client will get.
+                    buffer.clear();
+                    droppedThrough = change.sequence();
+                } else {
+                    buffer.addLast(change);
+                }
+            }
+            schedule();
+        }
+
+        void ping() {
+            if (closed) {
+                return;
+            }
+            synchronized (this) {
+                pingDue = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Change next;
+                boolean ping;
+                synchronized (this) {
+                    if (droppedThrough >= 0) {
+                        next = new Change(droppedThrough, RESET, null);
+                        droppedThrough = -1;
+                    } else {
+                        next = buffer.pollFirst();
+                    }
+                    ping = next == null && pingDue;
+                    pingDue = false;
+                    if (next == null && !ping) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (ping) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        SseEmitter.SseEventBuilder event = SseEmitter.event()
+                                .id(instance + "-" + next.sequence())
+                                .name(next.name());
+                        emitter.send(next.event() == null
+                                ? event.data("")
+                                : event.data(next.event(), MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The container sees the broken connection too and completes the emitter.
+                    log.debug("Change feed subscriber gone: {}", e.getMessage());
+                    closed = true;
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        buffer.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
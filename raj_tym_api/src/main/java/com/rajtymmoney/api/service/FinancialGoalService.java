@@ -0,0 +1,97 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.model.FinancialGoal;
+import com.rajtymmoney.api.repository.FinancialGoalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Goal writes. Full updates are checked against the goal's version; savings changes go
+ * through a single atomic UPDATE so concurrent contributions are never lost. A goal
+ * whose savings reach the target is COMPLETED.
+ */
+@Service
+@RequiredArgsConstructor
+public class FinancialGoalService {
+    public static final String ACTIVE = "ACTIVE";
+    public static final String COMPLETED = "COMPLETED";
+
+    private final FinancialGoalRepository goalRepository;
+
+    @Transactional
+    public FinancialGoal createGoal(FinancialGoal goal) {
+        goal.setId(null);
+        goal.setVersion(null);
+        if (goal.getCurrentSavings() == null) {
+            goal.setCurrentSavings(BigDecimal.ZERO);
+        }
+        completeIfReached(goal);
+        return goalRepository.save(goal);
+    }
+
+    /**
+     * Replaces the goal's fields. The goal must carry the version it was read at, and that
+     * version must still be the stored one.
+     *
+     * @throws VersionRequiredException if the goal has no version
+     * @throws ObjectOptimisticLockingFailureException if the goal changed since that version
+     */
+    @Transactional
+    public Optional<FinancialGoal> updateGoal(Long id, FinancialGoal goal) {
+        if (goal.getVersion() == null) {
+            throw new VersionRequiredException("Updating a goal needs the version it was read at, in the body or If-Match");
+        }
+        return goalRepository.findById(id).map(existing -> {
+            if (!goal.getVersion().equals(existing.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(FinancialGoal.class, id);
+            }
+            existing.setName(goal.getName());
+            existing.setTargetAmount(goal.getTargetAmount());
+            existing.setCurrentSavings(goal.getCurrentSavings());
+            existing.setIconName(goal.getIconName());
+            existing.setStatus(goal.getStatus());
+            existing.setDescription(goal.getDescription());
+            completeIfReached(existing);
+            // Flushed here so a concurrent change surfaces as a version conflict now.
+            return goalRepository.saveAndFlush(existing);
+        });
+    }
+
+    /**
+     * Adds ({@code withdraw} false) or takes ({@code withdraw} true) a positive amount
+     * from the goal's savings.
+     *
+     * @return the updated goal, or empty if there is no such goal
+     * @throws IllegalArgumentException for a non-positive amount, a deleted goal, or a
+     *                                  withdrawal larger than the savings
+     */
+    @Transactional
+    public Optional<FinancialGoal> addToSavings(Long id, BigDecimal amount, boolean withdraw) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        BigDecimal delta = withdraw ? amount.negate() : amount;
+        if (goalRepository.addToSavings(id, delta, LocalDateTime.now()) == 0) {
+            if (!goalRepository.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new IllegalArgumentException(withdraw
+                    ? "Withdrawal exceeds the goal's savings, or the goal is deleted"
+                    : "Goal is deleted");
+        }
+        return goalRepository.findById(id);
+    }
+
+    private static void completeIfReached(FinancialGoal goal) {
+        if (ACTIVE.equals(goal.getStatus()) && goal.getTargetAmount() != null
+                && goal.getCurrentSavings() != null && goal.getCurrentSavings().compareTo(goal.getTargetAmount()) >= 0) {
+            goal.setStatus(COMPLETED);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.model.FixedExpense;
+import com.rajtymmoney.api.model.FixedExpensePosting;
+import com.rajtymmoney.api.model.Transaction;
+import com.rajtymmoney.api.repository.FixedExpensePostingRepository;
+import com.rajtymmoney.api.repository.FixedExpenseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes due fixed expenses into the ledger as EXPENSE transactions, once per expense
+ * and month. Every month overlapping the catch-up window is checked, so days missed
+ * while the application was down are posted by the next run; an expense is never
+ * posted for a due date before it was created or last reactivated.
+ */
+@Slf4j
+@Service
+public class FixedExpensePostingService {
+    private final FixedExpenseRepository fixedExpenseRepository;
+    private final FixedExpensePostingRepository postingRepository;
+    private final TransactionService transactionService;
+    private final UserSettingsService userSettingsService;
+    private final Duration catchUp;
+
+    public FixedExpensePostingService(FixedExpenseRepository fixedExpenseRepository,
+                                      FixedExpensePostingRepository postingRepository,
+                                      TransactionService transactionService,
+                                      UserSettingsService userSettingsService,
+                                      @Value("${tym.fixed-expenses.catch-up:P62D}") Duration catchUp) {
+        this.fixedExpenseRepository = fixedExpenseRepository;
+        this.postingRepository = postingRepository;
+        this.transactionService = transactionService;
+        this.userSettingsService = userSettingsService;
+        this.catchUp = catchUp;
+    }
+
+    public LocalDate today() {
+        return userSettingsService.today();
+    }
+
+    /**
+     * Posts everything due on or before {@code today} within the catch-up window that
+     * has not been posted yet, in one batched write. Runs are serialized by a database
+     * lock; the posting key still rejects a duplicate if one slips through.
+     */
+    @Transactional
+    public List<FixedExpensePosting> postDue(LocalDate today) {
+        postingRepository.lockPostingRuns();
+        LocalDate windowStart = today.minusDays(catchUp.toDays());
+        YearMonth current = YearMonth.from(today);
+        List<Transaction> transactions = new ArrayList<>();
+        List<FixedExpensePosting> postings = new ArrayList<>();
+
+        for (YearMonth month = YearMonth.from(windowStart); !month.isAfter(current); month = month.plusMonths(1)) {
+            // On the last day of a month, due days beyond its length are due as well.
+            int throughDay = month.equals(current) && today.getDayOfMonth() < month.lengthOfMonth()
+                    ? today.getDayOfMonth()
+                    : 31;
+            for (FixedExpense expense : fixedExpenseRepository.findUnposted(FixedExpenseService.ACTIVE, throughDay,
+                    month.atDay(1))) {
+                LocalDate due = month.atDay(Math.min(expense.getDueDate(), month.lengthOfMonth()));
+                if (due.isBefore(windowStart) || due.isBefore(expense.getActivatedAt().toLocalDate())) {
+                    continue;
+                }
+                transactions.add(toTransaction(expense, due));
+                FixedExpensePosting posting = new FixedExpensePosting();
+                posting.setFixedExpenseId(expense.getId());
+                posting.setPeriod(month.atDay(1));
+                postings.add(posting);
+            }
+        }
+        if (postings.isEmpty()) {
+            return postings;
+        }
+
+        List<Transaction> saved = transactionService.addTransactions(transactions);
+        LocalDateTime postedAt = LocalDateTime.now();
+        for (int i = 0; i < postings.size(); i++) {
+            postings.get(i).setTransactionId(saved.get(i).getId());
+            postings.get(i).setPostedAt(postedAt);
+        }
+        postingRepository.saveAll(postings);
+        log.info("Posted {} fixed expenses through {}", postings.size(), today);
+        return postings;
+    }
+
+    private static Transaction toTransaction(FixedExpense expense, LocalDate due) {
+        Transaction transaction = new Transaction();
+        transaction.setType("EXPENSE");
+        transaction.setAmount(expense.getAmount());
+        transaction.setDescription(expense.getName());
+        transaction.setCategory(expense.getCategory());
+        transaction.setDate(due);
+        return transaction;
+    }
+}
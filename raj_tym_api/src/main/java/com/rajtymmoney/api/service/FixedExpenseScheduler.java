@@ -0,0 +1,35 @@
+package com.rajtymmoney.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the fixed-expense posting job on startup, to catch up after downtime, and then
+ * on {@code tym.fixed-expenses.cron}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "tym.fixed-expenses.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class FixedExpenseScheduler {
+    private final FixedExpensePostingService postingService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${tym.fixed-expenses.cron:0 5 * * * *}")
+    public void run() {
+        try {
+            postingService.postDue(postingService.today());
+        } catch (DataIntegrityViolationException e) {
+            // Another instance posted some of the same months first; the next run picks up the rest.
+            log.info("Fixed expense posting overlapped with another run: {}", e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+            log.error("Fixed expense posting failed", e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.model.FixedExpense;
+import com.rajtymmoney.api.model.FixedExpensePosting;
+import com.rajtymmoney.api.repository.FixedExpensePostingRepository;
+import com.rajtymmoney.api.repository.FixedExpenseRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class FixedExpenseService {
+    public static final String ACTIVE = "ACTIVE";
+    public static final String INACTIVE = "INACTIVE";
+
+    private final FixedExpenseRepository fixedExpenseRepository;
+    private final FixedExpensePostingRepository postingRepository;
+    private final UserSettingsService userSettingsService;
+
+    public List<FixedExpense> getAllFixedExpenses() {
+        return fixedExpenseRepository.findAll();
+    }
+
+    public List<FixedExpense> getActiveFixedExpenses() {
+        return fixedExpenseRepository.findByStatus(ACTIVE);
+    }
+
+    public FixedExpense getFixedExpenseById(Long id) {
+        return fixedExpenseRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Fixed Expense not found with id: " + id));
+    }
+
+    public List<FixedExpensePosting> getPostings(Long id) {
+        getFixedExpenseById(id);
+        return postingRepository.findByFixedExpenseIdOrderByPeriodDesc(id);
+    }
+
+    public FixedExpense createFixedExpense(FixedExpense fixedExpense) {
+        fixedExpense.setId(null);
+        if (fixedExpense.getStatus() == null) {
+            fixedExpense.setStatus(ACTIVE);
+        }
+        validate(fixedExpense);
+        fixedExpense.setActivatedAt(LocalDateTime.now(userSettingsService.zone()));
+        return fixedExpenseRepository.save(fixedExpense);
+    }
+
+    public FixedExpense updateFixedExpense(Long id, FixedExpense updatedExpense) {
+        FixedExpense existingExpense = getFixedExpenseById(id);
+        validate(updatedExpense);
+
+        existingExpense.setName(updatedExpense.getName());
+        existingExpense.setAmount(updatedExpense.getAmount());
+        existingExpense.setDueDate(updatedExpense.getDueDate());
+        existingExpense.setCategory(updatedExpense.getCategory());
+        if (ACTIVE.equals(updatedExpense.getStatus()) && !ACTIVE.equals(existingExpense.getStatus())) {
+            existingExpense.setActivatedAt(LocalDateTime.now(userSettingsService.zone()));
+        }
+        existingExpense.setStatus(updatedExpense.getStatus());
+
+        return fixedExpenseRepository.save(existingExpense);
+    }
+
+    public void deleteFixedExpense(Long id) {
+        FixedExpense expense = getFixedExpenseById(id);
+        expense.setStatus(INACTIVE);
+        fixedExpenseRepository.save(expense);
+    }
+
+    public List<FixedExpense> getFixedExpensesByCategory(String category) {
+        return fixedExpenseRepository.findByCategory(category);
+    }
+
+    private static void validate(FixedExpense expense) {
+        if (expense.getDueDate() == null || expense.getDueDate() < 1 || expense.getDueDate() > 31) {
+            throw new IllegalArgumentException("dueDate must be a day of the month between 1 and 31");
+        }
+        if (expense.getAmount() == null || expense.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        if (!ACTIVE.equals(expense.getStatus()) && !INACTIVE.equals(expense.getStatus())) {
+            throw new IllegalArgumentException("status must be ACTIVE or INACTIVE");
+        }
+    }
+}
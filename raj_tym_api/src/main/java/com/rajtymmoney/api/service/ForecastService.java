@@ -0,0 +1,381 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.CashFlowForecast;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.model.Budget;
+import com.rajtymmoney.api.model.FinancialGoal;
+import com.rajtymmoney.api.model.Money;
+import com.rajtymmoney.api.repository.BudgetRepository;
+import com.rajtymmoney.api.repository.FinancialGoalRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo cash-flow projection. Each INCOME and EXPENSE category becomes a series of
+ * monthly totals over the history window, read from the rollup table; every simulated month draws one historical
+ * month per series independently. Where an active budget covers a forecast month, the
+ * category's draws are rescaled so their mean is the budget's monthly share. Active goals
+ * are funded in id order from the savings accumulated since the start of the forecast.
+ *
+ * <p>Scenarios run on a dedicated fork/join pool in fixed-size blocks, each with its own
+ * split of one seeded {@link SplittableRandom}, and write into flat arrays indexed by
+ * month and scenario; percentiles come from sorting each month's slice.
+ */
+@Service
+public class ForecastService {
+    static final int MAX_MONTHS = 600;
+    static final int MAX_SCENARIOS = 100_000;
+    static final int MAX_CELLS = 6_000_000;
+    static final int MAX_HISTORY_MONTHS = 240;
+
+    private static final String INCOME = "INCOME";
+    private static final String EXPENSE = "EXPENSE";
+    private static final String ACTIVE = "ACTIVE";
+    private static final int NOT_REACHED = Integer.MAX_VALUE;
+    // Fixed rather than derived from the pool size, so a seed gives the same result anywhere.
+    private static final int BLOCK_SCENARIOS = 512;
+
+    private static final Comparator<SeriesKey> SERIES_ORDER = Comparator.comparing(SeriesKey::type)
+            .thenComparing(SeriesKey::category, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final AggregationService aggregationService;
+    private final BudgetRepository budgetRepository;
+    private final FinancialGoalRepository goalRepository;
+    private final ForkJoinPool pool;
+
+    public ForecastService(AggregationService aggregationService,
+                           BudgetRepository budgetRepository,
+                           FinancialGoalRepository goalRepository,
+                           @Value("${tym.forecast.parallelism:0}") int parallelism) {
+        this.aggregationService = aggregationService;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("forecast-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * @param asOf            the first forecast month is the one containing this date; history
+     *                        ends with the month before it
+     * @param startingBalance balance at the end of history, or null for the ledger's net total then
+     * @param seed            null for a random seed
+     */
+    public CashFlowForecast forecast(LocalDate asOf, int months, int scenarios, int historyMonths,
+                                     BigDecimal startingBalance, boolean useBudgets, Long seed) {
+        if (asOf == null) {
+            throw new IllegalArgumentException("asOf is required");
+        }
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new IllegalArgumentException("months must be between 1 and " + MAX_MONTHS);
+        }
+        if (scenarios < 1 || scenarios > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("scenarios must be between 1 and " + MAX_SCENARIOS);
+        }
+        if ((long) months * scenarios > MAX_CELLS) {
+            throw new IllegalArgumentException("months x scenarios must not exceed " + MAX_CELLS);
+        }
+        if (historyMonths < 1 || historyMonths > MAX_HISTORY_MONTHS) {
+            throw new IllegalArgumentException("history must be between 1 and " + MAX_HISTORY_MONTHS + " months");
+        }
+        YearMonth first = YearMonth.from(asOf);
+        LocalDate historyStart = first.minusMonths(historyMonths).atDay(1);
+        LocalDate historyEnd = first.atDay(1).minusDays(1);
+        long start = Money.toMinorUnits(startingBalance != null
+                ? startingBalance
+                : aggregationService.netTotalThrough(first.minusMonths(1)));
+
+        Model model = buildModel(historyMonths, first, months, useBudgets);
+        List<FinancialGoal> goals = goalRepository.findByStatus(ACTIVE).stream()
+                .sorted(Comparator.comparing(FinancialGoal::getId))
+                .toList();
+        long[] thresholds = new long[goals.size()];
+        long cumulative = 0;
+        for (int g = 0; g < goals.size(); g++) {
+            cumulative += remaining(goals.get(g));
+            thresholds[g] = cumulative;
+        }
+
+        long actualSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        Simulation simulation = new Simulation(model, thresholds, months, scenarios, start);
+        pool.invoke(new ScenarioBlock(simulation, 0, scenarios, new SplittableRandom(actualSeed)));
+        // Parallel streams started from inside the pool run on its workers.
+        pool.submit(() -> {
+            IntStream.range(0, months).parallel()
+                    .forEach(m -> Arrays.sort(simulation.balances, m * scenarios, (m + 1) * scenarios));
+            IntStream.range(0, goals.size()).parallel()
+                    .forEach(g -> Arrays.sort(simulation.etas, g * scenarios, (g + 1) * scenarios));
+        }).join();
+
+        List<CashFlowForecast.BalanceBand> balance = new ArrayList<>(months);
+        for (int m = 0; m < months; m++) {
+            int from = m * scenarios;
+            balance.add(new CashFlowForecast.BalanceBand(first.plusMonths(m).atEndOfMonth(),
+                    Money.toDecimal(simulation.balances[from + rank(10, scenarios)]),
+                    Money.toDecimal(simulation.balances[from + rank(25, scenarios)]),
+                    Money.toDecimal(simulation.balances[from + rank(50, scenarios)]),
+                    Money.toDecimal(simulation.balances[from + rank(75, scenarios)]),
+                    Money.toDecimal(simulation.balances[from + rank(90, scenarios)])));
+        }
+        List<CashFlowForecast.GoalEta> goalEtas = new ArrayList<>(goals.size());
+        for (int g = 0; g < goals.size(); g++) {
+            FinancialGoal goal = goals.get(g);
+            int from = g * scenarios;
+            int reached = 0;
+            while (reached < scenarios && simulation.etas[from + reached] != NOT_REACHED) {
+                reached++;
+            }
+            goalEtas.add(new CashFlowForecast.GoalEta(goal.getId(), goal.getName(),
+                    Money.toDecimal(remaining(goal)), (double) reached / scenarios,
+                    etaDate(first, simulation.etas[from + rank(10, scenarios)]),
+                    etaDate(first, simulation.etas[from + rank(50, scenarios)]),
+                    etaDate(first, simulation.etas[from + rank(90, scenarios)])));
+        }
+        return new CashFlowForecast(asOf, months, scenarios, actualSeed, historyStart, historyEnd,
+                Money.toDecimal(start), model.series(), balance, goalEtas);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Collects the per-category monthly history (months without transactions count as
+     * zero) and the per-month scale factors that apply active budgets.
+     */
+    private Model buildModel(int historyMonths, YearMonth first, int months, boolean useBudgets) {
+        Map<SeriesKey, long[]> history = new TreeMap<>(SERIES_ORDER);
+        YearMonth firstHistoryMonth = first.minusMonths(historyMonths);
+        for (TransactionAggregate row : aggregationService.monthlyTotals(firstHistoryMonth, first.minusMonths(1), null, null)) {
+            int sign = sign(row.type());
+            if (sign == 0) {
+                continue;
+            }
+            int month = (int) ChronoUnit.MONTHS.between(firstHistoryMonth, YearMonth.from(row.period()));
+            history.computeIfAbsent(new SeriesKey(row.type(), row.category()), k -> new long[historyMonths])[month]
+                    += sign * Money.toMinorUnits(row.sum());
+        }
+
+        Map<String, long[]> budgets = useBudgets ? budgetsByCategory(first, months) : Map.of();
+        for (String category : budgets.keySet()) {
+            history.putIfAbsent(new SeriesKey(EXPENSE, category), new long[0]);
+        }
+
+        int seriesCount = history.size();
+        int[] offsets = new int[seriesCount + 1];
+        double[] scale = new double[months * seriesCount];
+        List<long[]> samples = new ArrayList<>(seriesCount);
+        List<CashFlowForecast.Series> series = new ArrayList<>(seriesCount);
+        int k = 0;
+        for (Map.Entry<SeriesKey, long[]> entry : history.entrySet()) {
+            long[] values = entry.getValue();
+            long mean = values.length == 0 ? 0 : Math.abs(Math.round((double) Arrays.stream(values).sum() / values.length));
+            long[] budget = EXPENSE.equals(entry.getKey().type()) ? budgets.get(entry.getKey().category()) : null;
+            boolean budgetOnly = mean == 0 && budget != null;
+            if (budgetOnly) {
+                // Nothing to resample: spend exactly the budget, as a one-unit draw scaled up.
+                values = new long[]{-1};
+                mean = 1;
+            }
+            long budgetMonthly = 0;
+            for (int m = 0; m < months; m++) {
+                double factor = budgetOnly ? 0 : 1;
+                if (budget != null && budget[m] > 0) {
+                    factor = (double) budget[m] / mean;
+                    budgetMonthly = budgetMonthly == 0 ? budget[m] : budgetMonthly;
+                }
+                scale[m * seriesCount + k] = factor;
+            }
+            samples.add(values);
+            offsets[k + 1] = offsets[k] + values.length;
+            series.add(new CashFlowForecast.Series(entry.getKey().type(), entry.getKey().category(),
+                    budgetOnly ? 0 : values.length, Money.toDecimal(budgetOnly ? 0 : mean),
+                    budgetMonthly == 0 ? null : Money.toDecimal(budgetMonthly)));
+            k++;
+        }
+        long[] flat = new long[offsets[seriesCount]];
+        for (int i = 0; i < seriesCount; i++) {
+            System.arraycopy(samples.get(i), 0, flat, offsets[i], samples.get(i).length);
+        }
+        return new Model(seriesCount, flat, offsets, scale, series);
+    }
+
+    /**
+     * Monthly share, in minor units, of every active budget per category and forecast
+     * month. A budget's amount is spread evenly over the calendar months it spans; a budget
+     * without an amount or dates, or ending before it starts, spans no months and is skipped.
+     */
+    private Map<String, long[]> budgetsByCategory(YearMonth first, int months) {
+        Map<String, long[]> budgets = new HashMap<>();
+        YearMonth last = first.plusMonths(months - 1);
+        for (Budget budget : budgetRepository.findByStatus(ACTIVE)) {
+            if (budget.getAmount() == null || budget.getStartDate() == null || budget.getEndDate() == null
+                    || budget.getEndDate().isBefore(budget.getStartDate())) {
+                continue;
+            }
+            YearMonth from = YearMonth.from(budget.getStartDate());
+            YearMonth to = YearMonth.from(budget.getEndDate());
+            if (to.isBefore(first) || from.isAfter(last)) {
+                continue;
+            }
+            long monthly = Money.toMinorUnits(budget.getAmount()) / (ChronoUnit.MONTHS.between(from, to) + 1);
+            long[] perMonth = budgets.computeIfAbsent(budget.getCategory(), c -> new long[months]);
+            for (YearMonth month = from.isBefore(first) ? first : from; !month.isAfter(to) && !month.isAfter(last);
+                 month = month.plusMonths(1)) {
+                perMonth[(int) ChronoUnit.MONTHS.between(first, month)] += monthly;
+            }
+        }
+        return budgets;
+    }
+
+    private static long remaining(FinancialGoal goal) {
+        BigDecimal saved = goal.getCurrentSavings() == null ? BigDecimal.ZERO : goal.getCurrentSavings();
+        return Math.max(0, Money.toMinorUnits(goal.getTargetAmount().subtract(saved)));
+    }
+
+    private static int sign(String type) {
+        if (INCOME.equals(type)) {
+            return 1;
+        }
+        return EXPENSE.equals(type) ? -1 : 0;
+    }
+
+    /**
+     * Nearest-rank index of the {@code percentile}th value in a sorted slice.
+     */
+    private static int rank(int percentile, int size) {
+        return Math.max(0, (int) Math.ceil(percentile / 100.0 * size) - 1);
+    }
+
+    private static LocalDate etaDate(YearMonth first, int month) {
+        return month == NOT_REACHED ? null : first.plusMonths(month).atEndOfMonth();
+    }
+
+    private record SeriesKey(String type, String category) {
+    }
+
+    /**
+     * Draws for series {@code k} are {@code samples[offsets[k]..offsets[k + 1])}, multiplied
+     * by {@code scale[month * seriesCount + k]}.
+     */
+    private record Model(int seriesCount, long[] samples, int[] offsets, double[] scale,
+                         List<CashFlowForecast.Series> series) {
+    }
+
+    /**
+     * Shared inputs and outputs of one run. Balances are stored month-major and goal ETAs
+     * (month indexes) goal-major, so each block writes only its own scenario columns.
+     */
+    private static final class Simulation {
+        final Model model;
+        final long[] thresholds;
+        final int months;
+        final int scenarios;
+        final long start;
+        final long[] balances;
+        final int[] etas;
+
+        Simulation(Model model, long[] thresholds, int months, int scenarios, long start) {
+            this.model = model;
+            this.thresholds = thresholds;
+            this.months = months;
+            this.scenarios = scenarios;
+            this.start = start;
+            this.balances = new long[months * scenarios];
+            this.etas = new int[thresholds.length * scenarios];
+        }
+
+        void run(int from, int to, SplittableRandom random) {
+            int seriesCount = model.seriesCount();
+            long[] samples = model.samples();
+            int[] offsets = model.offsets();
+            double[] scale = model.scale();
+            int goals = thresholds.length;
+            for (int s = from; s < to; s++) {
+                long balance = start;
+                long saved = 0;
+                int next = 0;
+                for (int g = 0; g < goals; g++) {
+                    etas[g * scenarios + s] = NOT_REACHED;
+                }
+                while (next < goals && thresholds[next] <= 0) {
+                    etas[next++ * scenarios + s] = 0;
+                }
+                for (int m = 0; m < months; m++) {
+                    // Exact in a double while the month's total stays under 2^53 minor units;
+                    // rounding once per month rather than per draw keeps the loop cheap.
+                    double draws = 0;
+                    int scaleBase = m * seriesCount;
+                    for (int k = 0; k < seriesCount; k++) {
+                        int offset = offsets[k];
+                        // Multiply-shift instead of nextInt(bound): no division, and the bias
+                        // is below one in 2^32 / history length.
+                        int pick = (int) (((random.nextInt() & 0xFFFFFFFFL) * (offsets[k + 1] - offset)) >>> 32);
+                        draws += samples[offset + pick] * scale[scaleBase + k];
+                    }
+                    long net = Math.round(draws);
+                    balance += net;
+                    saved += net;
+                    balances[m * scenarios + s] = balance;
+                    while (next < goals && saved >= thresholds[next]) {
+                        etas[next++ * scenarios + s] = m;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Halves the scenario range until a block is left, giving the forked half a split of
+     * the random generator.
+     */
+    private static final class ScenarioBlock extends RecursiveAction {
+        private final Simulation simulation;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        ScenarioBlock(Simulation simulation, int from, int to, SplittableRandom random) {
+            this.simulation = simulation;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BLOCK_SCENARIOS) {
+                simulation.run(from, to, random);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            ScenarioBlock right = new ScenarioBlock(simulation, mid, to, random.split());
+            right.fork();
+            new ScenarioBlock(simulation, from, mid, random).compute();
+            right.join();
+        }
+    }
+}
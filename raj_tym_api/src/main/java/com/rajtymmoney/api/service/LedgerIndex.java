@@ -0,0 +1,638 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.TimeBucket;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.event.TransactionChangedEvent;
+import com.rajtymmoney.api.model.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Optional in-memory, column-oriented copy of the ledger ({@code tym.ledger-index.enabled})
+ * that answers dashboard aggregates without a database round trip. Rows are sorted by
+ * (day, id) in primitive arrays, about 23 bytes per transaction, so a date range is two
+ * binary searches followed by a linear scan.
+ * <p>
+ * Committed writes arrive through {@link TransactionChangedEvent}. They go into a small
+ * sorted overlay and hide the superseded main rows in a bitmap kept in copy-on-write
+ * chunks, so a write costs about the size of the overlay, not of the ledger. Once the
+ * overlay grows, a background thread folds it into the main columns. Readers always see
+ * an immutable snapshot.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "tym.ledger-index.enabled", havingValue = "true")
+public class LedgerIndex {
+    private static final int OVERLAY_LIMIT = 4096;
+    // Main rows per chunk of the hidden bitmap.
+    private static final int CHUNK_ROWS = 1 << 16;
+
+    private final LedgerIndexLoader loader;
+    private final Dictionary types = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    // Changes committed while a scan or compaction is running, replayed onto its result;
+    // guarded by this.
+    private final List<TransactionChangedEvent> backlog = new ArrayList<>();
+    private boolean loading = true;
+    private boolean compacting;
+    private final Object scanLock = new Object();
+    private volatile Snapshot snapshot;
+
+    public LedgerIndex(LedgerIndexLoader loader) {
+        this.loader = loader;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public long getRows() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.main().size - current.hiddenRows() + current.overlayColumns().size;
+    }
+
+    public long getMemoryBytes() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.main().memoryBytes() + current.overlayColumns().memoryBytes()
+                + current.hiddenBytes();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofPlatform().name("ledger-index-loader").daemon().start(this::load);
+    }
+
+    /**
+     * Replaces the index with a fresh scan of the ledger, e.g. after rows were changed
+     * with SQL outside {@link TransactionService}. The current snapshot keeps serving
+     * queries until the scan completes.
+     */
+    public void load() {
+        synchronized (scanLock) {
+            scanAndReplace();
+        }
+    }
+
+    private void scanAndReplace() {
+        long started = System.nanoTime();
+        synchronized (this) {
+            loading = true;
+        }
+        try {
+            replace(Snapshot.of(loader.scan(types, categories)));
+            log.info("Ledger index loaded {} rows ({} KiB) in {} ms", getRows(), getMemoryBytes() / 1024,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Ledger index load failed; aggregates use the previous snapshot or the database", e);
+        } finally {
+            synchronized (this) {
+                loading = false;
+                backlog.clear();
+            }
+        }
+    }
+
+    private void compact() {
+        synchronized (scanLock) {
+            Snapshot base;
+            synchronized (this) {
+                base = snapshot;
+                loading = true;
+            }
+            try {
+                replace(base.compact());
+            } catch (RuntimeException e) {
+                log.error("Ledger index compaction failed; the overlay keeps growing until the next one", e);
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                    backlog.clear();
+                    compacting = false;
+                }
+            }
+        }
+    }
+
+    private synchronized void replace(Snapshot base) {
+        // Replaying is idempotent per id, so changes the base already has do no harm. One
+        // pass over all of them, in commit order, merges the overlay once.
+        List<TransactionChangedEvent.Change> changes = new ArrayList<>();
+        for (TransactionChangedEvent event : backlog) {
+            changes.addAll(event.changes());
+        }
+        snapshot = changes.isEmpty() ? base : apply(base, new TransactionChangedEvent(changes));
+    }
+
+    @TransactionalEventListener
+    public synchronized void onTransactionChanged(TransactionChangedEvent event) {
+        if (snapshot != null) {
+            snapshot = apply(snapshot, event);
+            if (!compacting && snapshot.overlayColumns().size > OVERLAY_LIMIT) {
+                compacting = true;
+                Thread.ofPlatform().name("ledger-index-compactor").daemon().start(this::compact);
+            }
+        }
+        if (loading) {
+            backlog.add(event);
+        }
+    }
+
+    public List<TransactionAggregate> totalsByType(TransactionFilter filter) {
+        Query query = query(filter);
+        if (query == null) {
+            return List.of();
+        }
+        Totals totals = new Totals(query.typeKeys());
+        query.accumulate(query.fromDay(), query.toDay(), Grouping.TYPE, totals);
+        List<TransactionAggregate> rows = new ArrayList<>();
+        for (int type : types.sortedCodes(query.typeKeys())) {
+            totals.emit(type, types.name(type), null, null, rows);
+        }
+        return rows;
+    }
+
+    public List<TransactionAggregate> totalsByCategory(TransactionFilter filter) {
+        Query query = query(filter);
+        if (query == null) {
+            return List.of();
+        }
+        Totals totals = new Totals(query.categoryKeys() * query.typeKeys());
+        query.accumulate(query.fromDay(), query.toDay(), Grouping.CATEGORY_AND_TYPE, totals);
+        int[] sortedCategories = categories.sortedCodes(query.categoryKeys());
+        List<TransactionAggregate> rows = new ArrayList<>();
+        for (int type : types.sortedCodes(query.typeKeys())) {
+            for (int category : sortedCategories) {
+                totals.emit(category * query.typeKeys() + type, types.name(type), categories.name(category), null, rows);
+            }
+        }
+        return rows;
+    }
+
+    public List<TransactionAggregate> totalsByPeriod(TransactionFilter filter, TimeBucket bucket) {
+        return byPeriod(filter, bucket, false);
+    }
+
+    public List<TransactionAggregate> totalsByPeriodAndCategory(TransactionFilter filter, TimeBucket bucket) {
+        return byPeriod(filter, bucket, true);
+    }
+
+    private List<TransactionAggregate> byPeriod(TransactionFilter filter, TimeBucket bucket, boolean byCategory) {
+        Query query = query(filter);
+        if (query == null || query.snapshot().isEmpty()) {
+            return List.of();
+        }
+        int fromDay = Math.max(query.fromDay(), query.snapshot().firstDay());
+        int toDay = Math.min(query.toDay(), query.snapshot().lastDay());
+        int typeKeys = query.typeKeys();
+        int[] sortedTypes = types.sortedCodes(typeKeys);
+        int[] sortedCategories = byCategory ? categories.sortedCodes(query.categoryKeys()) : new int[]{0};
+        List<TransactionAggregate> rows = new ArrayList<>();
+        LocalDate period = truncate(LocalDate.ofEpochDay(fromDay), bucket);
+        while (period.toEpochDay() <= toDay) {
+            LocalDate next = advance(period, bucket);
+            Totals totals = new Totals(byCategory ? query.categoryKeys() * typeKeys : typeKeys);
+            query.accumulate(Math.max(fromDay, (int) period.toEpochDay()), Math.min(toDay, (int) next.toEpochDay() - 1),
+                    byCategory ? Grouping.CATEGORY_AND_TYPE : Grouping.TYPE, totals);
+            for (int type : sortedTypes) {
+                for (int category : sortedCategories) {
+                    totals.emit(category * typeKeys + type, types.name(type),
+                            byCategory ? categories.name(category) : null, period, rows);
+                }
+            }
+            period = next;
+        }
+        return rows;
+    }
+
+    /**
+     * Categories with the largest summed amount in the filtered range, largest first.
+     */
+    public List<TransactionAggregate> topCategories(TransactionFilter filter, int limit) {
+        Query query = query(filter);
+        if (query == null) {
+            return List.of();
+        }
+        Totals totals = new Totals(query.categoryKeys());
+        query.accumulate(query.fromDay(), query.toDay(), Grouping.CATEGORY, totals);
+        List<TransactionAggregate> rows = new ArrayList<>();
+        for (int category = 0; category < query.categoryKeys(); category++) {
+            totals.emit(category, filter.type(), categories.name(category), null, rows);
+        }
+        return rows.stream()
+                .sorted(Comparator.comparing(TransactionAggregate::sum).reversed()
+                        .thenComparing(TransactionAggregate::category))
+                .limit(limit)
+                .toList();
+    }
+
+    private Query query(TransactionFilter filter) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Ledger index is not loaded");
+        }
+        // Read the dictionaries after the snapshot: every code in it is below these sizes.
+        int typeKeys = types.size();
+        int categoryKeys = categories.size();
+        int typeCode = filter.type() == null ? -1 : types.find(filter.type());
+        int categoryCode = filter.category() == null ? -1 : categories.find(filter.category());
+        if ((filter.type() != null && typeCode < 0) || (filter.category() != null && categoryCode < 0)) {
+            return null;
+        }
+        int fromDay = filter.startDate() == null ? Integer.MIN_VALUE : (int) filter.startDate().toEpochDay();
+        int toDay = filter.endDate() == null ? Integer.MAX_VALUE - 1 : (int) filter.endDate().toEpochDay();
+        return new Query(current, typeCode, categoryCode, typeKeys, categoryKeys, fromDay, toDay);
+    }
+
+    private Snapshot apply(Snapshot current, TransactionChangedEvent event) {
+        Columns main = current.main();
+        long[][] hidden = current.hidden().clone();
+        boolean[] copied = new boolean[hidden.length];
+        int hiddenRows = current.hiddenRows();
+        Set<Long> changed = new HashSet<>();
+        Map<Long, Row> added = new HashMap<>();
+        for (TransactionChangedEvent.Change change : event.changes()) {
+            long id = change.id();
+            changed.add(id);
+            added.remove(id);
+            // The main columns may hold the row as it was before or after this change,
+            // depending on whether the initial scan ran before or after the commit.
+            if (change.before() != null) {
+                hiddenRows += hide(main, hidden, copied, id, change.before().date());
+            }
+            if (change.after() != null) {
+                hiddenRows += hide(main, hidden, copied, id, change.after().date());
+                added.put(id, toRow(id, change.after()));
+            }
+        }
+        return new Snapshot(main, hidden, hiddenRows, current.overlayColumns().replace(changed, added.values()));
+    }
+
+    private static int hide(Columns main, long[][] hidden, boolean[] copied, long id, LocalDate date) {
+        int index = main.indexOf(id, (int) date.toEpochDay());
+        if (index < 0 || isHidden(hidden, index)) {
+            return 0;
+        }
+        int chunk = index / CHUNK_ROWS;
+        if (!copied[chunk]) {
+            hidden[chunk] = hidden[chunk] == null ? new long[CHUNK_ROWS / 64] : hidden[chunk].clone();
+            copied[chunk] = true;
+        }
+        hidden[chunk][(index % CHUNK_ROWS) >>> 6] |= 1L << index;
+        return 1;
+    }
+
+    private static boolean isHidden(long[][] hidden, int index) {
+        long[] chunk = hidden[index / CHUNK_ROWS];
+        return chunk != null && (chunk[(index % CHUNK_ROWS) >>> 6] & (1L << index)) != 0;
+    }
+
+    private Row toRow(long id, TransactionChangedEvent.Entry entry) {
+        // The event carries the amount as submitted, which may have more decimals than were stored.
+        long amount = Money.toMinorUnits(entry.amount());
+        return new Row(id, (int) entry.date().toEpochDay(), amount, types.code(entry.type()),
+                categories.code(entry.category()));
+    }
+
+    static LocalDate truncate(LocalDate date, TimeBucket bucket) {
+        return switch (bucket) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    private static LocalDate advance(LocalDate period, TimeBucket bucket) {
+        return switch (bucket) {
+            case DAY -> period.plusDays(1);
+            case WEEK -> period.plusWeeks(1);
+            case MONTH -> period.plusMonths(1);
+            case YEAR -> period.plusYears(1);
+        };
+    }
+
+    private enum Grouping { TYPE, CATEGORY, CATEGORY_AND_TYPE }
+
+    private record Query(Snapshot snapshot, int typeCode, int categoryCode, int typeKeys, int categoryKeys,
+                         int fromDay, int toDay) {
+
+        void accumulate(int fromDay, int toDay, Grouping grouping, Totals totals) {
+            Columns main = snapshot.main();
+            scan(main, snapshot.hiddenRows() == 0 ? null : snapshot.hidden(),
+                    main.lowerBound(fromDay), main.lowerBound(toDay + 1), grouping, totals);
+            Columns overlay = snapshot.overlayColumns();
+            scan(overlay, null, overlay.lowerBound(fromDay), overlay.lowerBound(toDay + 1), grouping, totals);
+        }
+
+        private void scan(Columns columns, long[][] hidden, int from, int to, Grouping grouping, Totals totals) {
+            short[] typeColumn = columns.types;
+            short[] categoryColumn = columns.categories;
+            long[] amounts = columns.amounts;
+            for (int i = from; i < to; i++) {
+                if (hidden != null && isHidden(hidden, i)) {
+                    continue;
+                }
+                int type = typeColumn[i];
+                int category = categoryColumn[i];
+                if ((typeCode >= 0 && type != typeCode) || (categoryCode >= 0 && category != categoryCode)) {
+                    continue;
+                }
+                int key = switch (grouping) {
+                    case TYPE -> type;
+                    case CATEGORY -> category;
+                    case CATEGORY_AND_TYPE -> category * typeKeys + type;
+                };
+                totals.add(key, amounts[i]);
+            }
+        }
+    }
+
+    /**
+     * Count, sum, min and max per group key, in parallel primitive arrays.
+     */
+    private static final class Totals {
+        private final long[] count;
+        private final long[] sum;
+        private final long[] min;
+        private final long[] max;
+
+        Totals(int keys) {
+            count = new long[keys];
+            sum = new long[keys];
+            min = new long[keys];
+            max = new long[keys];
+            Arrays.fill(min, Long.MAX_VALUE);
+            Arrays.fill(max, Long.MIN_VALUE);
+        }
+
+        void add(int key, long amount) {
+            count[key]++;
+            sum[key] = Math.addExact(sum[key], amount);
+            min[key] = Math.min(min[key], amount);
+            max[key] = Math.max(max[key], amount);
+        }
+
+        void emit(int key, String type, String category, LocalDate period, List<TransactionAggregate> rows) {
+            if (key < count.length && count[key] > 0) {
+                rows.add(TransactionAggregate.of(type, category, period, count[key], Money.toDecimal(sum[key]),
+                        Money.toDecimal(min[key]), Money.toDecimal(max[key])));
+            }
+        }
+    }
+
+    private record Row(long id, int day, long amount, short type, short category) {
+    }
+
+    /**
+     * {@code hidden} marks superseded main rows, one chunk per {@link #CHUNK_ROWS} rows;
+     * a chunk is null until a row in it is hidden and is never changed once published.
+     */
+    private record Snapshot(Columns main, long[][] hidden, int hiddenRows, Columns overlayColumns) {
+
+        static Snapshot of(Columns main) {
+            return new Snapshot(main, new long[(main.size + CHUNK_ROWS - 1) / CHUNK_ROWS][], 0, Columns.EMPTY);
+        }
+
+        boolean isEmpty() {
+            return main.size == 0 && overlayColumns.size == 0;
+        }
+
+        int firstDay() {
+            return Math.min(main.size == 0 ? Integer.MAX_VALUE : main.days[0],
+                    overlayColumns.size == 0 ? Integer.MAX_VALUE : overlayColumns.days[0]);
+        }
+
+        long hiddenBytes() {
+            long bytes = hidden.length * 8L;
+            for (long[] chunk : hidden) {
+                bytes += chunk == null ? 0 : chunk.length * 8L;
+            }
+            return bytes;
+        }
+
+        int lastDay() {
+            return Math.max(main.size == 0 ? Integer.MIN_VALUE : main.days[main.size - 1],
+                    overlayColumns.size == 0 ? Integer.MIN_VALUE : overlayColumns.days[overlayColumns.size - 1]);
+        }
+
+        /**
+         * Merges the visible main rows with the overlay into new main columns.
+         */
+        Snapshot compact() {
+            ColumnsBuilder merged = new ColumnsBuilder(main.size - hiddenRows + overlayColumns.size);
+            Columns other = overlayColumns;
+            int j = 0;
+            for (int i = 0; i < main.size; i++) {
+                if (isHidden(hidden, i)) {
+                    continue;
+                }
+                while (j < other.size && other.compare(j, main.days[i], main.ids[i]) < 0) {
+                    merged.add(other, j++);
+                }
+                merged.add(main, i);
+            }
+            while (j < other.size) {
+                merged.add(other, j++);
+            }
+            return of(merged.build());
+        }
+    }
+
+    /**
+     * Primitive columns sorted by (day, id). Immutable once built.
+     */
+    public static final class Columns {
+        static final Columns EMPTY = new Columns(new long[0], new int[0], new long[0], new short[0], new short[0], 0);
+
+        private final long[] ids;
+        private final int[] days;
+        private final long[] amounts;
+        private final short[] types;
+        private final short[] categories;
+        private final int size;
+
+        private Columns(long[] ids, int[] days, long[] amounts, short[] types, short[] categories, int size) {
+            this.ids = ids;
+            this.days = days;
+            this.amounts = amounts;
+            this.types = types;
+            this.categories = categories;
+            this.size = size;
+        }
+
+        /**
+         * These columns without the rows of {@code removed} ids, plus {@code added}, in one
+         * merge pass.
+         */
+        Columns replace(Set<Long> removed, Collection<Row> added) {
+            Row[] sorted = added.toArray(Row[]::new);
+            Arrays.sort(sorted, Comparator.comparingInt(Row::day).thenComparingLong(Row::id));
+            ColumnsBuilder merged = new ColumnsBuilder(size + sorted.length);
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                if (removed.contains(ids[i])) {
+                    continue;
+                }
+                while (j < sorted.length && compare(i, sorted[j].day(), sorted[j].id()) > 0) {
+                    merged.add(sorted[j++]);
+                }
+                merged.add(this, i);
+            }
+            while (j < sorted.length) {
+                merged.add(sorted[j++]);
+            }
+            return merged.build();
+        }
+
+        /**
+         * First position whose day is not before {@code day}.
+         */
+        int lowerBound(int day) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int indexOf(long id, int day) {
+            int index = Arrays.binarySearch(ids, lowerBound(day), lowerBound(day + 1), id);
+            return index < 0 ? -1 : index;
+        }
+
+        int compare(int index, int day, long id) {
+            int byDay = Integer.compare(days[index], day);
+            return byDay != 0 ? byDay : Long.compare(ids[index], id);
+        }
+
+        long memoryBytes() {
+            return size * (8L + 4 + 8 + 2 + 2);
+        }
+    }
+
+    public static final class ColumnsBuilder {
+        private long[] ids;
+        private int[] days;
+        private long[] amounts;
+        private short[] types;
+        private short[] categories;
+        private int size;
+
+        public ColumnsBuilder(int capacity) {
+            int initial = Math.max(capacity, 16);
+            ids = new long[initial];
+            days = new int[initial];
+            amounts = new long[initial];
+            types = new short[initial];
+            categories = new short[initial];
+        }
+
+        public void add(long id, int day, long amount, short type, short category) {
+            if (size == ids.length) {
+                int grown = size + (size >> 1);
+                ids = Arrays.copyOf(ids, grown);
+                days = Arrays.copyOf(days, grown);
+                amounts = Arrays.copyOf(amounts, grown);
+                types = Arrays.copyOf(types, grown);
+                categories = Arrays.copyOf(categories, grown);
+            }
+            ids[size] = id;
+            days[size] = day;
+            amounts[size] = amount;
+            types[size] = type;
+            categories[size] = category;
+            size++;
+        }
+
+        void add(Row row) {
+            add(row.id(), row.day(), row.amount(), row.type(), row.category());
+        }
+
+        void add(Columns from, int index) {
+            add(from.ids[index], from.days[index], from.amounts[index], from.types[index], from.categories[index]);
+        }
+
+        public Columns build() {
+            if (size == 0) {
+                return Columns.EMPTY;
+            }
+            return new Columns(Arrays.copyOf(ids, size), Arrays.copyOf(days, size), Arrays.copyOf(amounts, size),
+                    Arrays.copyOf(types, size), Arrays.copyOf(categories, size), size);
+        }
+    }
+
+    /**
+     * Append-only mapping between strings and short codes. Codes are never reused, so a
+     * snapshot stays valid while new values are added.
+     */
+    public static final class Dictionary {
+        private final Map<String, Short> codes = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[16];
+        private volatile int size;
+
+        public synchronized short code(String name) {
+            Short existing = codes.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            if (size == Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct values for the ledger index");
+            }
+            String[] grown = size == names.length ? Arrays.copyOf(names, size * 2) : names;
+            grown[size] = name;
+            names = grown;
+            codes.put(name, (short) size);
+            return (short) size++;
+        }
+
+        int find(String name) {
+            Short code = codes.get(name);
+            return code == null ? -1 : code;
+        }
+
+        String name(int code) {
+            return names[code];
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * The first {@code count} codes ordered by name.
+         */
+        int[] sortedCodes(int count) {
+            String[] current = names;
+            return IntStream.range(0, count).boxed()
+                    .sorted(Comparator.comparing(code -> current[code]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.LedgerEntry;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole ledger, archived years included, into a fresh set of columns for
+ * {@link LedgerIndex}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "tym.ledger-index.enabled", havingValue = "true")
+public class LedgerIndexLoader {
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+
+    @Transactional(readOnly = true)
+    public LedgerIndex.Columns scan(LedgerIndex.Dictionary types, LedgerIndex.Dictionary categories) {
+        LedgerIndex.ColumnsBuilder columns = new LedgerIndex.ColumnsBuilder(1024);
+        TransactionFilter all = TransactionFilter.none();
+        try (Stream<LedgerEntry> rows = transactionArchive.mergeLedgerEntries(
+                transactionRepository.streamLedgerEntries(all), all)) {
+            Iterator<LedgerEntry> it = rows.iterator();
+            while (it.hasNext()) {
+                LedgerEntry row = it.next();
+                columns.add(row.id(), (int) row.date().toEpochDay(), row.amountMinor(),
+                        types.code(row.type()), categories.code(row.category()));
+            }
+        }
+        return columns.build();
+    }
+}
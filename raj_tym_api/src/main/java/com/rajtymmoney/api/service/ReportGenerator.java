@@ -0,0 +1,173 @@
+package com.rajtymmoney.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rajtymmoney.api.dto.LedgerEntry;
+import com.rajtymmoney.api.dto.ReportContent;
+import com.rajtymmoney.api.dto.TransactionAggregate;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.event.EntityChangedEvent;
+import com.rajtymmoney.api.model.Report;
+import com.rajtymmoney.api.model.Money;
+import com.rajtymmoney.api.model.MoneyAccumulator;
+import com.rajtymmoney.api.repository.ReportRepository;
+import com.rajtymmoney.api.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Computes report content in a single streaming pass over the matching ledger rows,
+ * keeping only per-group running totals, in minor units, in memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportGenerator {
+    public static final String PENDING = "PENDING";
+    public static final String GENERATED = "GENERATED";
+    public static final String FAILED = "FAILED";
+
+    private final ReportRepository reportRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final ObjectMapper objectMapper;
+    private final ReportResultCache resultCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void generate(Long reportId) throws JsonProcessingException {
+        Report report = reportRepository.findById(reportId).orElse(null);
+        if (report == null || !PENDING.equals(report.getStatus())) {
+            return;
+        }
+        // Identical requests queued behind one another reuse the first result.
+        String content = resultCache.get(report).orElse(null);
+        if (content == null) {
+            long token = resultCache.beginCompute();
+            content = objectMapper.writeValueAsString(compute(report));
+            resultCache.put(report, content, token);
+        }
+        report.setContent(content);
+        report.setStatus(GENERATED);
+        report.setGeneratedDate(LocalDate.now());
+        // Delivered to change feed subscribers once the status change has committed.
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityChangedEvent.REPORT, EntityChangedEvent.Action.UPDATED, reportId));
+    }
+
+    @Transactional
+    public void markFailed(Long reportId, String reason) {
+        reportRepository.findById(reportId).ifPresent(report -> {
+            report.setStatus(FAILED);
+            report.setContent(reason == null ? null : "{\"error\":" + quote(reason) + "}");
+            eventPublisher.publishEvent(EntityChangedEvent.of(EntityChangedEvent.REPORT, EntityChangedEvent.Action.UPDATED, reportId));
+        });
+    }
+
+    private ReportContent compute(Report report) {
+        String type = typeFilter(report.getType());
+        List<String> categories = parseCategories(report.getCategories());
+
+        // Months are indexed from the report's first month, so the per-row work is
+        // arithmetic on primitives and map lookups on existing keys.
+        int firstMonth = monthIndex(report.getStartDate());
+        int months = monthIndex(report.getEndDate()) - firstMonth + 1;
+        Map<String, MoneyAccumulator> totals = new TreeMap<>();
+        Map<String, Map<String, MoneyAccumulator>> byCategory = new TreeMap<>();
+        Map<String, MoneyAccumulator[]> byMonth = new TreeMap<>();
+        long count = 0;
+
+        // One stream per requested category keeps every scan on the category index.
+        List<String> scans = categories.isEmpty() ? Arrays.asList((String) null) : categories;
+        for (String category : scans) {
+            TransactionFilter filter = new TransactionFilter(type, category, report.getStartDate(), report.getEndDate());
+            try (Stream<LedgerEntry> rows = transactionArchive.mergeLedgerEntries(
+                    transactionRepository.streamLedgerEntries(filter), filter)) {
+                Iterator<LedgerEntry> it = rows.iterator();
+                while (it.hasNext()) {
+                    LedgerEntry row = it.next();
+                    long amount = row.amountMinor();
+                    totals.computeIfAbsent(row.type(), k -> new MoneyAccumulator()).add(amount);
+                    byCategory.computeIfAbsent(row.category(), k -> new TreeMap<>())
+                            .computeIfAbsent(row.type(), k -> new MoneyAccumulator()).add(amount);
+                    MoneyAccumulator[] perMonth = byMonth.computeIfAbsent(row.type(), k -> new MoneyAccumulator[months]);
+                    int month = monthIndex(row.date()) - firstMonth;
+                    if (perMonth[month] == null) {
+                        perMonth[month] = new MoneyAccumulator();
+                    }
+                    perMonth[month].add(amount);
+                    count++;
+                }
+            }
+        }
+
+        List<TransactionAggregate> totalRows = new ArrayList<>();
+        totals.forEach((t, sums) -> totalRows.add(toAggregate(sums, t, null, null)));
+        List<TransactionAggregate> categoryRows = new ArrayList<>();
+        byCategory.forEach((category, perType) ->
+                perType.forEach((t, sums) -> categoryRows.add(toAggregate(sums, t, category, null))));
+        List<TransactionAggregate> monthRows = new ArrayList<>();
+        LocalDate first = report.getStartDate().withDayOfMonth(1);
+        for (int month = 0; month < months; month++) {
+            for (Map.Entry<String, MoneyAccumulator[]> perType : byMonth.entrySet()) {
+                MoneyAccumulator sums = perType.getValue()[month];
+                if (sums != null) {
+                    monthRows.add(toAggregate(sums, perType.getKey(), null, first.plusMonths(month)));
+                }
+            }
+        }
+
+        return new ReportContent(report.getType(), report.getStartDate(), report.getEndDate(), categories,
+                count, totalRows, categoryRows, monthRows);
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static TransactionAggregate toAggregate(MoneyAccumulator sums, String type, String category,
+                                                    LocalDate period) {
+        return TransactionAggregate.of(type, category, period, sums.getCount(),
+                Money.toDecimal(sums.getSum()), Money.toDecimal(sums.getMin()), Money.toDecimal(sums.getMax()));
+    }
+
+    static String typeFilter(String reportType) {
+        if (reportType == null) {
+            throw new IllegalArgumentException("Report type is required");
+        }
+        return switch (reportType) {
+            case "INCOME", "EXPENSE" -> reportType;
+            case "SUMMARY", "CATEGORY_WISE" -> null;
+            default -> throw new IllegalArgumentException("Unsupported report type: " + reportType);
+        };
+    }
+
+    static List<String> parseCategories(String categories) {
+        if (categories == null || categories.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(categories.split(","))
+                .map(String::trim)
+                .filter(c -> !c.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private String quote(String value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return "\"\"";
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.rajtymmoney.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rajtymmoney.api.event.TransactionChangedEvent;
+import com.rajtymmoney.api.model.Report;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Generated report content keyed by the normalized report parameters. Entries expire
+ * after a TTL, are bounded in number, and are dropped as soon as a committed ledger
+ * write falls inside their date range, type and categories.
+ */
+@Component
+public class ReportResultCache {
+    private static final int INVALIDATION_LOG_SIZE = 1024;
+
+    private final Cache<Key, String> cache;
+    // Recent invalidations, so a result computed while one of them committed is not
+    // cached afterwards with data from before the write.
+    private final Deque<Invalidation> invalidationLog = new ArrayDeque<>();
+    private long invalidationSeq;
+
+    public ReportResultCache(@Value("${tym.reports.cache.max-size:500}") long maxSize,
+                             @Value("${tym.reports.cache.ttl:PT1H}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<String> get(Report report) {
+        return Optional.ofNullable(cache.getIfPresent(Key.of(report)));
+    }
+
+    /**
+     * Returns a token to pass to {@link #put} once the result has been computed.
+     */
+    public synchronized long beginCompute() {
+        return invalidationSeq;
+    }
+
+    public synchronized void put(Report report, String content, long token) {
+        Key key = Key.of(report);
+        if (token < invalidationSeq - invalidationLog.size()) {
+            return;
+        }
+        for (Invalidation invalidation : invalidationLog) {
+            if (invalidation.seq() > token && invalidation.entries().stream().anyMatch(key::affectedBy)) {
+                return;
+            }
+        }
+        cache.put(key, content);
+    }
+
+    public Cache<Key, String> getCache() {
+        return cache;
+    }
+
+    @TransactionalEventListener
+    public synchronized void onTransactionChanged(TransactionChangedEvent event) {
+        List<TransactionChangedEvent.Entry> entries = event.changes().stream()
+                .flatMap(change -> Stream.of(change.before(), change.after()))
+                .filter(Objects::nonNull)
+                .toList();
+        invalidationLog.addLast(new Invalidation(++invalidationSeq, entries));
+        if (invalidationLog.size() > INVALIDATION_LOG_SIZE) {
+            invalidationLog.removeFirst();
+        }
+        cache.asMap().keySet().removeIf(key -> entries.stream().anyMatch(key::affectedBy));
+    }
+
+    public record Key(String type, LocalDate startDate, LocalDate endDate, List<String> categories) {
+
+        static Key of(Report report) {
+            return new Key(report.getType(), report.getStartDate(), report.getEndDate(),
+                    ReportGenerator.parseCategories(report.getCategories()));
+        }
+
+        boolean affectedBy(TransactionChangedEvent.Entry entry) {
+            String typeFilter = ReportGenerator.typeFilter(type);
+            return !entry.date().isBefore(startDate) && !entry.date().isAfter(endDate)
+                    && (typeFilter == null || typeFilter.equals(entry.type()))
+                    && (categories.isEmpty() || categories.contains(entry.category()));
+        }
+    }
+
+    private record Invalidation(long seq, List<TransactionChangedEvent.Entry> entries) {
+    }
+}
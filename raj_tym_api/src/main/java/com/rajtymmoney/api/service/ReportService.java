@@ -0,0 +1,127 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.model.Report;
+import com.rajtymmoney.api.repository.ReportRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts report requests and hands them to a bounded worker pool. When every worker
+ * is busy and the queue is full, new requests are refused rather than queued without
+ * limit.
+ */
+@Slf4j
+@Service
+public class ReportService {
+    private final ReportRepository reportRepository;
+    private final ReportGenerator reportGenerator;
+    private final ReportResultCache resultCache;
+    private final ThreadPoolExecutor workers;
+
+    public ReportService(ReportRepository reportRepository,
+                         ReportGenerator reportGenerator,
+                         ReportResultCache resultCache,
+                         @Value("${tym.reports.workers:2}") int workerCount,
+                         @Value("${tym.reports.queue-capacity:50}") int queueCapacity,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.reportRepository = reportRepository;
+        this.reportGenerator = reportGenerator;
+        this.resultCache = resultCache;
+        // Virtual workers still go through the bounded pool: the limit is what keeps
+        // report generation from crowding request handling out of the connection pool.
+        ThreadFactory threadFactory;
+        if (virtualThreads) {
+            threadFactory = Thread.ofVirtual().name("report-worker-", 1).factory();
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "report-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Stores the report as GENERATED straight away when an identical report is cached;
+     * otherwise stores it as PENDING and queues its generation.
+     *
+     * @throws RejectedExecutionException if the job queue is full; the report is not kept
+     */
+    public Report requestReport(Report report) {
+        ReportGenerator.typeFilter(report.getType());
+        if (report.getStartDate() == null || report.getEndDate() == null) {
+            throw new IllegalArgumentException("startDate and endDate are required");
+        }
+        if (report.getEndDate().isBefore(report.getStartDate())) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        report.setId(null);
+        report.setGeneratedDate(LocalDate.now());
+
+        Optional<String> cached = resultCache.get(report);
+        if (cached.isPresent()) {
+            report.setStatus(ReportGenerator.GENERATED);
+            report.setContent(cached.get());
+            return reportRepository.save(report);
+        }
+
+        report.setStatus(ReportGenerator.PENDING);
+        report.setContent(null);
+        Report saved = reportRepository.save(report);
+        try {
+            enqueue(saved.getId());
+        } catch (RejectedExecutionException e) {
+            reportRepository.deleteById(saved.getId());
+            throw e;
+        }
+        return saved;
+    }
+
+    public int getQueueDepth() {
+        return workers.getQueue().size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingReports() {
+        for (Report report : reportRepository.findByStatus(ReportGenerator.PENDING)) {
+            try {
+                enqueue(report.getId());
+            } catch (RejectedExecutionException e) {
+                log.warn("Report queue full; report {} stays PENDING until the next restart", report.getId());
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void enqueue(Long reportId) {
+        workers.execute(() -> {
+            try {
+                reportGenerator.generate(reportId);
+            } catch (Exception e) {
+                log.error("Report {} failed", reportId, e);
+                reportGenerator.markFailed(reportId, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.rajtymmoney.api.service;
+
+/**
+ * Refuses work that arrives once the application has started shutting down; another
+ * instance can take the retry.
+ */
+public class ShuttingDownException extends RuntimeException {
+
+    public ShuttingDownException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.repository.TableVersionCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Versions of tables, kept in {@code table_versions}, for collection ETags and for caches
+ * of small tables that must notice writes from other instances. A writer marks
+ * the tables it changed, and each counter is bumped once just before its transaction
+ * commits: the counter row is then locked last, after any rollup rows, and only for the
+ * commit itself, so concurrent writers queue on it briefly and never in a cycle.
+ */
+@Service
+@RequiredArgsConstructor
+public class TableVersionService {
+    private final TableVersionCounterRepository counterRepository;
+
+    /**
+     * The committed version of {@code table}; 0 before its first write.
+     */
+    public long current(String table) {
+        return counterRepository.findVersion(table).orElse(0L);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changed(String table) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof BumpBeforeCommit bump) {
+                bump.tables.add(table);
+                return;
+            }
+        }
+        BumpBeforeCommit bump = new BumpBeforeCommit();
+        bump.tables.add(table);
+        TransactionSynchronizationManager.registerSynchronization(bump);
+    }
+
+    private final class BumpBeforeCommit implements TransactionSynchronization {
+        // Sorted, so transactions changing several tables lock the counters in one order.
+        private final Set<String> tables = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            tables.forEach(counterRepository::bump);
+        }
+    }
+}
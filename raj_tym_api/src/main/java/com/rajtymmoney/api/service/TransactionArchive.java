@@ -0,0 +1,351 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.LedgerEntry;
+import com.rajtymmoney.api.dto.SearchDocument;
+import com.rajtymmoney.api.dto.SearchHit;
+import com.rajtymmoney.api.dto.SearchResult;
+import com.rajtymmoney.api.dto.TransactionCursor;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.model.ArchiveSegment;
+import com.rajtymmoney.api.model.Transaction;
+import com.rajtymmoney.api.repository.ArchiveSegmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read side of the transaction archive: the closed years {@link TransactionArchiveService}
+ * moved out of the database, one {@link ArchiveSegmentFile} per year. The merge methods
+ * combine what a query found in the table with the archived rows matching the same filter,
+ * so callers see one ledger.
+ * <p>
+ * Which years are archived is read from transaction_archive_segments and kept in memory
+ * along with the table's version in {@link TableVersionService}. Every query compares that
+ * version, one primary key lookup, and reloads the registry when a run on any instance has
+ * changed it since. {@link TransactionArchiveService} adds a year here before its run commits,
+ * so a query racing the run may see the year both in the table and in the archive, and the
+ * merges drop the second copy of a row rather than miss it. A failed run drops the cached
+ * registry.
+ */
+@Service
+public class TransactionArchive {
+    private static final Comparator<Transaction> OLDEST_FIRST = Comparator.comparing(Transaction::getDate)
+            .thenComparing(Transaction::getId);
+    private static final Comparator<LedgerEntry> ENTRIES_OLDEST_FIRST = Comparator.comparing(LedgerEntry::date)
+            .thenComparingLong(LedgerEntry::id);
+
+    static final String TABLE = "transaction_archive_segments";
+
+    private final ArchiveSegmentRepository segmentRepository;
+    private final TableVersionService tableVersionService;
+    private final Path directory;
+    // Files by registry id. A registered file is never rewritten, so a mapping stays valid.
+    private final Map<Long, ArchiveSegmentFile> files = new ConcurrentHashMap<>();
+    // Null until loaded, and after a failed archive run.
+    private volatile Registry registry;
+
+    public TransactionArchive(ArchiveSegmentRepository segmentRepository,
+                              TableVersionService tableVersionService,
+                              @Value("${tym.archive.dir:archive}") String directory) {
+        this.segmentRepository = segmentRepository;
+        this.tableVersionService = tableVersionService;
+        this.directory = Path.of(directory);
+    }
+
+    public Path resolve(String fileName) {
+        return directory.resolve(fileName);
+    }
+
+    /**
+     * Registered segments, oldest year first.
+     */
+    public List<ArchiveSegmentFile> segments() {
+        return registry().segments();
+    }
+
+    public List<ArchiveSegmentFile> segments(TransactionFilter filter) {
+        return segments().stream().filter(segment -> segment.overlaps(filter)).toList();
+    }
+
+    public Set<Integer> archivedYears() {
+        return registry().years();
+    }
+
+    /**
+     * Rejects writes dated in an archived year. Callers run it after their own statements,
+     * so a year archived while those waited on the archive job's lock is caught too.
+     */
+    public void requireWritable(Collection<LocalDate> dates) {
+        Registry current = registry();
+        for (LocalDate date : dates) {
+            if (date != null && current.years().contains(date.getYear())) {
+                throw new IllegalArgumentException("Transactions dated " + date.getYear() + " are archived and read-only");
+            }
+        }
+    }
+
+    /**
+     * Adds a segment {@link TransactionArchiveService} has just registered to the cached
+     * registry, ahead of the commit, and drops the cache again if the run rolls back. Other
+     * instances reload once the run commits its version. Must be called inside that run's
+     * transaction.
+     */
+    public void registered(ArchiveSegment segment) {
+        tableVersionService.changed(TABLE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    registry = null;
+                }
+            }
+        });
+        // A reload inside this transaction may list the segment already.
+        Registry current = registry();
+        List<ArchiveSegment> segments = new ArrayList<>(current.entries().stream()
+                .filter(entry -> !entry.getId().equals(segment.getId()))
+                .toList());
+        segments.add(segment);
+        segments.sort(Comparator.comparing(ArchiveSegment::getYear));
+        registry = registry(segments, current.version());
+    }
+
+    public Optional<Transaction> findById(long id) {
+        for (ArchiveSegmentFile segment : segments()) {
+            int row = segment.find(id);
+            if (row >= 0) {
+                return Optional.of(segment.transaction(row));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Archived rows matching {@code filter}, in (date, id) order.
+     */
+    public Stream<Transaction> transactions(TransactionFilter filter) {
+        return rows(filter, ArchiveSegmentFile::transaction);
+    }
+
+    public Stream<LedgerEntry> ledgerEntries(TransactionFilter filter) {
+        return rows(filter, ArchiveSegmentFile::ledgerEntry);
+    }
+
+    public Stream<SearchDocument> searchDocuments() {
+        return rows(TransactionFilter.none(), ArchiveSegmentFile::searchDocument);
+    }
+
+    /**
+     * Interleaves the archived rows matching {@code filter} with {@code table}, which must
+     * be in (date, id) order. Closing the result closes {@code table}.
+     */
+    public Stream<Transaction> mergeStream(Stream<Transaction> table, TransactionFilter filter) {
+        List<ArchiveSegmentFile> segments = segments(filter);
+        return segments.isEmpty() ? table : merge(table, transactions(segments, filter), OLDEST_FIRST);
+    }
+
+    public Stream<LedgerEntry> mergeLedgerEntries(Stream<LedgerEntry> table, TransactionFilter filter) {
+        List<ArchiveSegmentFile> segments = segments(filter);
+        return segments.isEmpty() ? table
+                : merge(table, rows(segments, filter, ArchiveSegmentFile::ledgerEntry), ENTRIES_OLDEST_FIRST);
+    }
+
+    /**
+     * Appends the archived rows matching {@code filter} to an unordered result.
+     */
+    public List<Transaction> mergeList(List<Transaction> table, TransactionFilter filter) {
+        List<ArchiveSegmentFile> segments = segments(filter);
+        if (segments.isEmpty()) {
+            return table;
+        }
+        Set<Long> seen = new HashSet<>();
+        for (Transaction transaction : table) {
+            seen.add(transaction.getId());
+        }
+        List<Transaction> merged = new ArrayList<>(table);
+        try (Stream<Transaction> archived = transactions(segments, filter)) {
+            archived.filter(transaction -> !seen.contains(transaction.getId())).forEach(merged::add);
+        }
+        return merged;
+    }
+
+    /**
+     * The first {@code limit} rows, newest first, of {@code table} and the archived rows
+     * matching {@code filter} that come after {@code after}. {@code table} must be such a
+     * page of the database rows.
+     */
+    public List<Transaction> mergePage(List<Transaction> table, TransactionFilter filter, TransactionCursor after,
+                                       int limit) {
+        List<ArchiveSegmentFile> segments = segments(filter);
+        List<Transaction> archived = new ArrayList<>();
+        for (int i = segments.size() - 1; i >= 0 && archived.size() < limit; i--) {
+            ArchiveSegmentFile segment = segments.get(i);
+            ArchiveSegmentFile.Scan scan = segment.scan(filter);
+            int end = after == null ? scan.to() : Math.min(scan.to(), segment.rowsBefore(after.date(), after.id()));
+            for (int row = end - 1; row >= scan.from() && archived.size() < limit; row--) {
+                if (scan.matches(row)) {
+                    archived.add(segment.transaction(row));
+                }
+            }
+        }
+        if (archived.isEmpty()) {
+            return table;
+        }
+        List<Transaction> merged = new ArrayList<>(Math.min(limit, table.size() + archived.size()));
+        Iterator<Transaction> newest = merge(table.stream(), archived.stream(), OLDEST_FIRST.reversed()).iterator();
+        while (newest.hasNext() && merged.size() < limit) {
+            merged.add(newest.next());
+        }
+        return merged;
+    }
+
+    /**
+     * Same contract as {@code TransactionRepositoryCustom.search}, over the archived rows and
+     * without a time budget.
+     */
+    public SearchResult search(TransactionFilter filter, String phrase, List<String> words, List<String> excluded,
+                               int limit) {
+        List<ArchiveSegmentFile> segments = segments(filter);
+        List<SearchHit> hits = new ArrayList<>();
+        for (int i = segments.size() - 1; i >= 0 && hits.size() <= limit; i--) {
+            ArchiveSegmentFile segment = segments.get(i);
+            ArchiveSegmentFile.Scan scan = segment.scan(filter);
+            // Description and category pairs repeat across rows; each is matched once.
+            Map<Long, Integer> tiers = new HashMap<>();
+            for (int row = scan.to() - 1; row >= scan.from() && hits.size() <= limit; row--) {
+                if (!scan.matches(row)) {
+                    continue;
+                }
+                int at = row;
+                long pair = ((long) segment.descriptionCode(row) << 16) | segment.categoryCode(row);
+                int tier = tiers.computeIfAbsent(pair, p -> TransactionSearchIndex.tier(
+                        TransactionSearchIndex.text(segment.description(at), segment.category(at)), phrase, words, excluded));
+                if (tier >= 0) {
+                    hits.add(new SearchHit(segment.id(row), tier));
+                }
+            }
+        }
+        // One more than limit tells that more rows match.
+        boolean truncated = hits.size() > limit;
+        if (truncated) {
+            hits.remove(limit);
+        }
+        // Stable, so each tier stays newest first.
+        hits.sort(Comparator.comparingInt(SearchHit::tier).reversed());
+        return new SearchResult(hits, truncated);
+    }
+
+    private Stream<Transaction> transactions(List<ArchiveSegmentFile> segments, TransactionFilter filter) {
+        return rows(segments, filter, ArchiveSegmentFile::transaction);
+    }
+
+    private <T> Stream<T> rows(TransactionFilter filter, RowReader<T> reader) {
+        return rows(segments(filter), filter, reader);
+    }
+
+    private static <T> Stream<T> rows(List<ArchiveSegmentFile> segments, TransactionFilter filter, RowReader<T> reader) {
+        return segments.stream().flatMap(segment -> {
+            ArchiveSegmentFile.Scan scan = segment.scan(filter);
+            return IntStream.range(scan.from(), scan.to()).filter(scan::matches).mapToObj(row -> reader.read(segment, row));
+        });
+    }
+
+    /**
+     * Merges two streams sorted by {@code order}, keeping one of two equal elements.
+     */
+    private static <T> Stream<T> merge(Stream<T> left, Stream<T> right, Comparator<? super T> order) {
+        Iterator<T> a = left.iterator();
+        Iterator<T> b = right.iterator();
+        Iterator<T> merged = new Iterator<>() {
+            private T nextA;
+            private T nextB;
+
+            @Override
+            public boolean hasNext() {
+                if (nextA == null && a.hasNext()) {
+                    nextA = a.next();
+                }
+                if (nextB == null && b.hasNext()) {
+                    nextB = b.next();
+                }
+                return nextA != null || nextB != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int comparison = nextA == null ? 1 : nextB == null ? -1 : order.compare(nextA, nextB);
+                T next = comparison <= 0 ? nextA : nextB;
+                if (comparison <= 0) {
+                    nextA = null;
+                }
+                if (comparison >= 0) {
+                    nextB = null;
+                }
+                return next;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(left::close)
+                .onClose(right::close);
+    }
+
+    private Registry registry() {
+        Registry current = registry;
+        long version = tableVersionService.current(TABLE);
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        // Read after the version, so a run committing in between only causes another reload.
+        Registry loaded = registry(segmentRepository.findAllByOrderByYearAsc(), version);
+        registry = loaded;
+        return loaded;
+    }
+
+    private Registry registry(List<ArchiveSegment> entries, long version) {
+        List<ArchiveSegmentFile> segments = new ArrayList<>(entries.size());
+        Set<Integer> years = new TreeSet<>();
+        for (ArchiveSegment segment : entries) {
+            segments.add(files.computeIfAbsent(segment.getId(), id -> ArchiveSegmentFile.open(resolve(segment.getFileName()))));
+            years.add(segment.getYear());
+        }
+        return new Registry(List.copyOf(entries), List.copyOf(segments), Collections.unmodifiableSet(years), version);
+    }
+
+    /**
+     * Registered segments, oldest year first, as of {@code version} of the table.
+     */
+    private record Registry(List<ArchiveSegment> entries, List<ArchiveSegmentFile> segments, Set<Integer> years,
+                            long version) {
+    }
+
+    @FunctionalInterface
+    private interface RowReader<T> {
+        T read(ArchiveSegmentFile segment, int row);
+    }
+}
@@ -0,0 +1,125 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.model.ArchiveSegment;
+import com.rajtymmoney.api.model.Transaction;
+import com.rajtymmoney.api.repository.ArchiveSegmentRepository;
+import com.rajtymmoney.api.repository.TransactionMonthlyRollupRepository;
+import com.rajtymmoney.api.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moves closed years of transactions out of the database into read-only segment files,
+ * read back by {@link TransactionArchive}. {@code tym.archive.hot-years} years, the current
+ * one included, stay in the table.
+ * <p>
+ * A year is archived in one database transaction that blocks ledger writes: its rollup rows
+ * are recomputed one last time, its rows are written to a segment file, the file is
+ * registered, and the year's partitions are dropped. A run that fails anywhere rolls back
+ * and leaves at most an unregistered file, which the next attempt overwrites.
+ */
+@Slf4j
+@Service
+public class TransactionArchiveService {
+    private final TransactionRepository transactionRepository;
+    private final ArchiveSegmentRepository segmentRepository;
+    private final TransactionMonthlyRollupRepository rollupRepository;
+    private final TransactionRollupService rollupService;
+    private final TransactionPartitionService partitionService;
+    private final TransactionArchive transactionArchive;
+    private final EntityManager entityManager;
+    private final int hotYears;
+
+    public TransactionArchiveService(TransactionRepository transactionRepository,
+                                     ArchiveSegmentRepository segmentRepository,
+                                     TransactionMonthlyRollupRepository rollupRepository,
+                                     TransactionRollupService rollupService,
+                                     TransactionPartitionService partitionService,
+                                     TransactionArchive transactionArchive,
+                                     EntityManager entityManager,
+                                     @Value("${tym.archive.hot-years:3}") int hotYears) {
+        this.transactionRepository = transactionRepository;
+        this.segmentRepository = segmentRepository;
+        this.rollupRepository = rollupRepository;
+        this.rollupService = rollupService;
+        this.partitionService = partitionService;
+        this.transactionArchive = transactionArchive;
+        this.entityManager = entityManager;
+        this.hotYears = Math.max(1, hotYears);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchiveSegment> segments() {
+        return segmentRepository.findAllByOrderByYearAsc();
+    }
+
+    /**
+     * The oldest year still in the table once it is due for archiving, otherwise null.
+     */
+    @Transactional(readOnly = true)
+    public Integer nextYearToArchive(LocalDate today) {
+        LocalDate first = transactionRepository.findFirstDate();
+        return first != null && first.getYear() <= today.getYear() - hotYears ? first.getYear() : null;
+    }
+
+    @Transactional
+    public ArchiveSegment archive(int year, LocalDate today) {
+        if (year >= today.getYear()) {
+            throw new IllegalArgumentException("Only closed years can be archived; " + year + " is not over yet");
+        }
+        segmentRepository.lockMaintenanceRuns();
+        if (segmentRepository.existsByYear(year)) {
+            throw new IllegalArgumentException(year + " is archived already");
+        }
+        LocalDate from = LocalDate.ofYearDay(year, 1);
+        LocalDate to = from.plusYears(1);
+        rollupRepository.lockLedgerAgainstWrites();
+        if (!transactionRepository.existsByDateBetween(from, to.minusDays(1))) {
+            throw new IllegalArgumentException("There are no transactions dated " + year);
+        }
+        // Readers assume every archived row is older than every row left in the table.
+        LocalDate first = transactionRepository.findFirstDate();
+        if (first.getYear() < year) {
+            throw new IllegalArgumentException("Archive " + first.getYear() + " first; years are archived oldest first");
+        }
+        long started = System.nanoTime();
+
+        // Rollup rows of archived years are never rebuilt again, so settle them now.
+        rollupService.rebuild(from, to);
+
+        String fileName = "transactions-" + year + ".seg";
+        ArchiveSegmentFile.Written written;
+        try (Stream<Transaction> rows = transactionRepository.streamMatching(
+                new TransactionFilter(null, null, from, to.minusDays(1)))) {
+            written = ArchiveSegmentFile.write(transactionArchive.resolve(fileName), year,
+                    rows.peek(entityManager::detach).iterator());
+        }
+
+        ArchiveSegment segment = new ArchiveSegment();
+        segment.setYear(year);
+        segment.setFileName(fileName);
+        segment.setRowCount((long) written.rows());
+        segment.setSizeBytes(written.sizeBytes());
+        segment.setArchivedAt(LocalDateTime.now());
+        segmentRepository.save(segment);
+        transactionArchive.registered(segment);
+
+        List<String> dropped = partitionService.dropWithin(from, to);
+        // Whatever the dropped partitions did not hold, in the default partition or an
+        // unpartitioned table.
+        int deleted = transactionRepository.deleteDatedBetween(from, to);
+        log.info("Archived {} transactions dated {} into {} ({} bytes) in {} ms; dropped partitions {}, deleted {} rows",
+                written.rows(), year, fileName, written.sizeBytes(), (System.nanoTime() - started) / 1_000_000,
+                dropped, deleted);
+        return segment;
+    }
+}
@@ -0,0 +1,75 @@
+package com.rajtymmoney.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.rajtymmoney.api.dto.ExportFormat;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.model.Transaction;
+import com.rajtymmoney.api.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,date,type,category,amount,description\n";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every matching transaction, archived ones included, to {@code out} one row at
+     * a time. Rows are detached as soon as they are written so the persistence context
+     * stays empty.
+     */
+    @Transactional(readOnly = true)
+    public void export(TransactionFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        ObjectWriter jsonWriter = objectMapper.writerFor(Transaction.class);
+        if (format == ExportFormat.CSV) {
+            buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        try (Stream<Transaction> rows = transactionArchive.mergeStream(transactionRepository.streamMatching(filter),
+                filter)) {
+            Iterator<Transaction> it = rows.iterator();
+            while (it.hasNext()) {
+                Transaction transaction = it.next();
+                if (format == ExportFormat.CSV) {
+                    buffered.write(toCsvLine(transaction).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    buffered.write(jsonWriter.writeValueAsBytes(transaction));
+                    buffered.write('\n');
+                }
+                entityManager.detach(transaction);
+            }
+        }
+        buffered.flush();
+    }
+
+    private String toCsvLine(Transaction t) {
+        return t.getId() + "," + t.getDate() + "," + csv(t.getType()) + "," + csv(t.getCategory()) + ","
+                + t.getAmount().toPlainString() + "," + csv(t.getDescription()) + "\n";
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,207 @@
+package com.rajtymmoney.api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rajtymmoney.api.dto.ImportSummary;
+import com.rajtymmoney.api.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of transactions. Input is parsed and validated row by row; valid
+ * rows are written in chunks, one database transaction per chunk, so memory is
+ * bounded by the chunk size rather than the upload size.
+ */
+@Service
+public class TransactionImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final Set<String> TYPES = Set.of("INCOME", "EXPENSE");
+    private static final List<String> CSV_COLUMNS = List.of("date", "type", "category", "amount", "description");
+
+    private final TransactionService transactionService;
+    private final TransactionArchive transactionArchive;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public TransactionImportService(TransactionService transactionService,
+                                    TransactionArchive transactionArchive,
+                                    ObjectMapper objectMapper,
+                                    @Value("${tym.import.chunk-size:1000}") int chunkSize) {
+        this.transactionService = transactionService;
+        this.transactionArchive = transactionArchive;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportSummary importJson(InputStream in) throws IOException {
+        ImportRun run = new ImportRun();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of transactions");
+            }
+            int row = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                row++;
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    run.offer(row, run.validate(objectMapper.treeToValue(node, Transaction.class)));
+                } catch (JsonProcessingException e) {
+                    run.reject(row, e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    run.reject(row, e.getMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    public ImportSummary importCsv(InputStream in) throws IOException {
+        ImportRun run = new ImportRun();
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        Map<String, Integer> columns = readHeader(reader.next());
+        int row = 0;
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                run.offer(row, run.validate(fromCsv(fields, columns)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                run.reject(row, e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + column);
+            }
+        }
+        return columns;
+    }
+
+    private Transaction fromCsv(List<String> fields, Map<String, Integer> columns) {
+        Transaction transaction = new Transaction();
+        transaction.setDate(LocalDate.parse(field(fields, columns, "date")));
+        transaction.setType(field(fields, columns, "type"));
+        transaction.setCategory(field(fields, columns, "category"));
+        transaction.setAmount(new BigDecimal(field(fields, columns, "amount")));
+        transaction.setDescription(field(fields, columns, "description"));
+        return transaction;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        if (index >= fields.size()) {
+            throw new IllegalArgumentException("Missing value for " + name);
+        }
+        return fields.get(index).trim();
+    }
+
+    private class ImportRun {
+        private final List<Transaction> chunk = new ArrayList<>(chunkSize);
+        private final List<Integer> chunkRows = new ArrayList<>(chunkSize);
+        private final List<ImportSummary.RowError> errors = new ArrayList<>();
+        // Looked up once per import; a year archived mid-import is still caught on write.
+        private final Set<Integer> archivedYears = transactionArchive.archivedYears();
+        private int total;
+        private int accepted;
+        private int rejected;
+
+        Transaction validate(Transaction transaction) {
+            if (transaction.getType() == null || !TYPES.contains(transaction.getType())) {
+                throw new IllegalArgumentException("type must be INCOME or EXPENSE");
+            }
+            if (transaction.getAmount() == null || transaction.getAmount().signum() <= 0) {
+                throw new IllegalArgumentException("amount must be positive");
+            }
+            if (transaction.getCategory() == null || transaction.getCategory().isBlank()) {
+                throw new IllegalArgumentException("category is required");
+            }
+            if (transaction.getDescription() == null || transaction.getDescription().isBlank()) {
+                throw new IllegalArgumentException("description is required");
+            }
+            if (transaction.getDate() == null) {
+                throw new IllegalArgumentException("date is required");
+            }
+            if (archivedYears.contains(transaction.getDate().getYear())) {
+                throw new IllegalArgumentException("date falls in " + transaction.getDate().getYear()
+                        + ", which is archived and read-only");
+            }
+            transaction.setId(null);
+            return transaction;
+        }
+
+        void offer(int row, Transaction transaction) {
+            total++;
+            chunk.add(transaction);
+            chunkRows.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(int row, String message) {
+            total++;
+            recordRejection(row, message);
+        }
+
+        ImportSummary finish() {
+            flush();
+            return new ImportSummary(total, accepted, rejected, errors);
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                transactionService.addTransactions(chunk);
+                accepted += chunk.size();
+            } catch (RuntimeException e) {
+                // The whole chunk rolled back; report each of its rows.
+                for (Integer row : chunkRows) {
+                    recordRejection(row, "Write failed: " + e.getMessage());
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+
+        private void recordRejection(int row, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportSummary.RowError(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.rajtymmoney.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Runs partition maintenance on startup and then on {@code tym.partitions.cron}, followed
+ * by archiving every year that is due when {@code tym.archive.enabled} is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tym.partitions.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionPartitionScheduler {
+    private final TransactionPartitionService partitionService;
+    private final TransactionArchiveService archiveService;
+    private final UserSettingsService userSettingsService;
+    private final boolean archiveEnabled;
+
+    public TransactionPartitionScheduler(TransactionPartitionService partitionService,
+                                         TransactionArchiveService archiveService,
+                                         UserSettingsService userSettingsService,
+                                         @Value("${tym.archive.enabled:false}") boolean archiveEnabled) {
+        this.partitionService = partitionService;
+        this.archiveService = archiveService;
+        this.userSettingsService = userSettingsService;
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${tym.partitions.cron:0 15 3 * * *}")
+    public void run() {
+        LocalDate today = userSettingsService.today();
+        try {
+            partitionService.maintain(today);
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance failed", e);
+        }
+        if (!archiveEnabled) {
+            return;
+        }
+        try {
+            // One transaction per year; a failure leaves the years before it archived.
+            for (Integer year = archiveService.nextYearToArchive(today); year != null;
+                 year = archiveService.nextYearToArchive(today)) {
+                archiveService.archive(year, today);
+            }
+        } catch (RuntimeException e) {
+            log.error("Archiving failed", e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.TransactionPartition;
+import com.rajtymmoney.api.repository.ArchiveSegmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the range partitions of transactions (migration V6) ahead of the calendar. Each
+ * run creates the partitions from the current {@code tym.partitions.interval} through
+ * {@code tym.partitions.create-ahead}, and gives any period the default partition caught
+ * rows for, such as an import of old statements, a partition of its own. Ranges already
+ * covered are skipped, so switching between yearly and monthly partitions only affects
+ * periods not created yet.
+ * <p>
+ * New partitions are created standalone and then attached, which takes a lock on the
+ * parent that reads and writes do not wait for. When the schema was built by
+ * Hibernate rather than Flyway the table is not partitioned and runs do nothing.
+ */
+@Slf4j
+@Service
+public class TransactionPartitionService {
+    private static final Pattern RANGE = Pattern.compile("FROM \\('([0-9-]+)'\\) TO \\('([0-9-]+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArchiveSegmentRepository segmentRepository;
+    private final ChronoUnit interval;
+    private final Period createAhead;
+
+    public TransactionPartitionService(JdbcTemplate jdbcTemplate,
+                                       ArchiveSegmentRepository segmentRepository,
+                                       @Value("${tym.partitions.interval:year}") String interval,
+                                       @Value("${tym.partitions.create-ahead:P1Y}") Period createAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.segmentRepository = segmentRepository;
+        this.interval = switch (interval) {
+            case "year" -> ChronoUnit.YEARS;
+            case "month" -> ChronoUnit.MONTHS;
+            default -> throw new IllegalStateException("Unsupported tym.partitions.interval: " + interval);
+        };
+        this.createAhead = createAhead;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransactionPartition> partitions() {
+        return jdbcTemplate.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), " +
+                        "CAST(GREATEST(c.reltuples, 0) AS bigint) FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = to_regclass('transactions') ORDER BY c.relname",
+                (rs, n) -> {
+                    Matcher range = RANGE.matcher(rs.getString(2));
+                    return range.find()
+                            ? new TransactionPartition(rs.getString(1), LocalDate.parse(range.group(1)),
+                                    LocalDate.parse(range.group(2)), rs.getLong(3))
+                            : new TransactionPartition(rs.getString(1), null, null, rs.getLong(3));
+                });
+    }
+
+    /**
+     * @return names of the partitions created
+     */
+    @Transactional
+    public List<String> maintain(LocalDate today) {
+        segmentRepository.lockMaintenanceRuns();
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('transactions'))",
+                Boolean.class))) {
+            return List.of();
+        }
+        List<TransactionPartition> partitions = new ArrayList<>(partitions());
+        TransactionPartition defaultPartition = partitions.stream()
+                .filter(TransactionPartition::isDefault).findFirst().orElse(null);
+        if (defaultPartition != null) {
+            // Keeps rows from arriving in the default partition between moving and attaching.
+            jdbcTemplate.execute("LOCK TABLE " + quote(defaultPartition.name()) + " IN SHARE ROW EXCLUSIVE MODE");
+        }
+
+        List<String> created = new ArrayList<>();
+        LocalDate last = today.plus(createAhead);
+        for (LocalDate start = periodStart(today); !start.isAfter(last); start = start.plus(1, interval)) {
+            create(start, partitions, defaultPartition, created);
+        }
+        if (defaultPartition != null) {
+            List<LocalDate> strays = jdbcTemplate.queryForList("SELECT DISTINCT CAST(date_trunc('"
+                    + (interval == ChronoUnit.YEARS ? "year" : "month") + "', date) AS date) FROM "
+                    + quote(defaultPartition.name()) + " ORDER BY 1", LocalDate.class);
+            for (LocalDate start : strays) {
+                create(start, partitions, defaultPartition, created);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Drops the partitions holding only dates in [from, to), returning their names. Runs
+     * inside the caller's transaction, which must have locked the table against writes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<String> dropWithin(LocalDate from, LocalDate to) {
+        List<String> dropped = new ArrayList<>();
+        for (TransactionPartition partition : partitions()) {
+            if (partition.within(from, to)) {
+                jdbcTemplate.execute("DROP TABLE " + quote(partition.name()));
+                dropped.add(partition.name());
+            }
+        }
+        return dropped;
+    }
+
+    private void create(LocalDate from, List<TransactionPartition> partitions, TransactionPartition defaultPartition,
+                        List<String> created) {
+        LocalDate to = from.plus(1, interval);
+        if (partitions.stream().anyMatch(partition -> partition.overlaps(from, to))) {
+            return;
+        }
+        String name = interval == ChronoUnit.YEARS ? "transactions_y" + from.getYear()
+                : String.format("transactions_m%d_%02d", from.getYear(), from.getMonthValue());
+        jdbcTemplate.execute("CREATE TABLE " + quote(name) + " (LIKE transactions INCLUDING DEFAULTS)");
+        int moved = 0;
+        if (defaultPartition != null) {
+            // Attaching fails while the default partition still holds rows of the range.
+            moved = jdbcTemplate.update("INSERT INTO " + quote(name) + " SELECT * FROM "
+                    + quote(defaultPartition.name()) + " WHERE date >= ? AND date < ?", from, to);
+            if (moved > 0) {
+                jdbcTemplate.update("DELETE FROM " + quote(defaultPartition.name()) + " WHERE date >= ? AND date < ?",
+                        from, to);
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE transactions ATTACH PARTITION " + quote(name)
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        partitions.add(new TransactionPartition(name, from, to, moved));
+        created.add(name);
+        log.info("Created partition {} for [{}, {}), moving {} rows out of the default partition", name, from, to, moved);
+    }
+
+    private LocalDate periodStart(LocalDate date) {
+        return interval == ChronoUnit.YEARS ? date.withDayOfYear(1) : date.withDayOfMonth(1);
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,131 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.RollupDrift;
+import com.rajtymmoney.api.event.TransactionChangedEvent;
+import com.rajtymmoney.api.model.Transaction;
+import com.rajtymmoney.api.repository.TransactionMonthlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps transaction_monthly_rollups in step with the ledger. The apply methods must
+ * run inside the transaction that writes the ledger rows, so a rollback undoes both.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionRollupService {
+    // Keys are applied in a fixed order so concurrent writers lock rollup rows in
+    // the same sequence and cannot deadlock each other.
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::month)
+            .thenComparing(RollupKey::category)
+            .thenComparing(RollupKey::type);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO transaction_monthly_rollups (rollup_month, category, type, total, txn_count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (rollup_month, category, type) DO UPDATE SET " +
+            "total = transaction_monthly_rollups.total + EXCLUDED.total, " +
+            "txn_count = transaction_monthly_rollups.txn_count + EXCLUDED.txn_count";
+
+    private final TransactionMonthlyRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void added(Collection<Transaction> transactions) {
+        Map<RollupKey, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (Transaction t : transactions) {
+            deltas.computeIfAbsent(RollupKey.of(t), k -> new Delta()).add(t.getAmount(), 1);
+        }
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replaced(TransactionChangedEvent.Entry previous, Transaction current) {
+        Map<RollupKey, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        RollupKey oldKey = new RollupKey(previous.date().withDayOfMonth(1), previous.category(), previous.type());
+        deltas.computeIfAbsent(oldKey, k -> new Delta()).add(previous.amount().negate(), -1);
+        deltas.computeIfAbsent(RollupKey.of(current), k -> new Delta()).add(current.getAmount(), 1);
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removed(Transaction transaction) {
+        apply(Map.of(RollupKey.of(transaction), new Delta().add(transaction.getAmount().negate(), -1)));
+    }
+
+    /**
+     * Recomputes every rollup row from the ledger. Ledger writes are blocked for the
+     * duration so no delta can slip in between the delete and the re-insert. Rows of
+     * archived years are left alone; they were settled when their year was archived.
+     */
+    @Transactional
+    public int rebuild() {
+        rollupRepository.lockLedgerAgainstWrites();
+        rollupRepository.deleteUnarchivedRows();
+        return rollupRepository.rebuildFromLedger();
+    }
+
+    /**
+     * Recomputes the rollup rows of the months in [from, to). The caller must already
+     * hold the ledger lock of {@link #rebuild()}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int rebuild(LocalDate from, LocalDate to) {
+        rollupRepository.deleteMonthRange(from, to);
+        return rollupRepository.rebuildFromLedger(from, to);
+    }
+
+    /**
+     * Rollup rows that disagree with the ledger, archived years excepted.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<RollupDrift> verify() {
+        return rollupRepository.findDrift();
+    }
+
+    /**
+     * Upserts all deltas as one JDBC batch. Going through JdbcTemplate rather than a
+     * native JPA query also avoids an auto-flush of the persistence context per row.
+     */
+    private void apply(Map<RollupKey, Delta> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            if (delta.count != 0 || delta.total.signum() != 0) {
+                rows.add(new Object[]{key.month(), key.category(), key.type(), delta.total, delta.count});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+    }
+
+    public record RollupKey(LocalDate month, String category, String type) {
+        public static RollupKey of(Transaction t) {
+            return new RollupKey(t.getDate().withDayOfMonth(1), t.getCategory(), t.getType());
+        }
+    }
+
+    private static final class Delta {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        Delta add(BigDecimal amount, long n) {
+            total = total.add(amount);
+            count += n;
+            return this;
+        }
+    }
+}
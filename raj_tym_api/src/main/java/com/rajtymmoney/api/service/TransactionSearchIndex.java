@@ -0,0 +1,435 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.SearchDocument;
+import com.rajtymmoney.api.dto.SearchHit;
+import com.rajtymmoney.api.dto.SearchResult;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.event.TransactionChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory stand-in for the pg_trgm search index, used when the database has none. Rows
+ * are appended to parallel arrays, and every trigram of the lower-cased
+ * "description category" text maps to the rows containing it. Words are padded the way
+ * pg_trgm pads them, so short words still find the rows where a word starts with them.
+ * Every distinct word of letters is kept as well, to correct misspelled query words.
+ * <p>
+ * Nothing is held until {@link #load()} is called. After that, committed writes arrive
+ * through {@link TransactionChangedEvent}: a changed row is marked deleted and
+ * re-appended, and the arrays are compacted once a quarter of them are dead.
+ */
+@Slf4j
+@Service
+public class TransactionSearchIndex {
+    private static final int MIN_COMPACT_ROWS = 4096;
+    private static final Comparator<Match> NEWEST_FIRST = Comparator.comparingInt(Match::day)
+            .thenComparingLong(Match::id).reversed();
+
+    private final TransactionSearchIndexLoader loader;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object scanLock = new Object();
+
+    // Changes committed while a scan is running, replayed onto its result; guarded by this.
+    private final List<TransactionChangedEvent> backlog = new ArrayList<>();
+    private boolean loading;
+
+    // Guarded by lock; null until loaded.
+    private Rows rows;
+
+    public TransactionSearchIndex(TransactionSearchIndexLoader loader) {
+        this.loader = loader;
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return rows != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getRows() {
+        lock.readLock().lock();
+        try {
+            return rows == null ? 0 : rows.size - rows.deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void loadInBackground() {
+        Thread.ofPlatform().name("search-index-loader").daemon().start(this::load);
+    }
+
+    /**
+     * Builds the index from a fresh scan of the ledger. A previous copy keeps serving
+     * searches until the scan completes.
+     */
+    public void load() {
+        synchronized (scanLock) {
+            long started = System.nanoTime();
+            synchronized (this) {
+                loading = true;
+            }
+            try {
+                Rows loaded = new Rows();
+                loader.scan(loaded::add);
+                synchronized (this) {
+                    // Replaying is idempotent per id, so changes the scan already saw do no harm.
+                    for (TransactionChangedEvent event : backlog) {
+                        loaded.apply(event);
+                    }
+                    lock.writeLock().lock();
+                    try {
+                        rows = loaded;
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                log.info("Search index loaded {} rows with {} trigrams and {} terms in {} ms", getRows(),
+                        loaded.postings.size(), loaded.terms.size(), (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.error("Search index load failed", e);
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                    backlog.clear();
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public synchronized void onTransactionChanged(TransactionChangedEvent event) {
+        if (loading) {
+            backlog.add(event);
+        }
+        lock.writeLock().lock();
+        try {
+            if (rows != null) {
+                rows.apply(event);
+                if (rows.deletedCount > Math.max(MIN_COMPACT_ROWS, rows.size / 4)) {
+                    rows = rows.compact();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Same contract as {@code TransactionRepositoryCustom.search}, without a time budget;
+     * all arguments must already be lower-cased, and every word must hold a letter or digit.
+     */
+    public SearchResult search(TransactionFilter filter, String phrase, List<String> words, List<String> excluded,
+                               int limit) {
+        int fromDay = filter.startDate() == null ? Integer.MIN_VALUE : (int) filter.startDate().toEpochDay();
+        int toDay = filter.endDate() == null ? Integer.MAX_VALUE : (int) filter.endDate().toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            Rows current = loaded();
+            // Every match holds the key trigrams of every word, so the shortest of their
+            // posting lists bounds the rows worth checking. Without any, all rows are.
+            Postings candidates = null;
+            for (String word : words) {
+                for (long trigram : keyTrigrams(word)) {
+                    Postings postings = current.postings.get(trigram);
+                    if (postings == null) {
+                        return new SearchResult(List.of(), false);
+                    }
+                    if (candidates == null || postings.size < candidates.size) {
+                        candidates = postings;
+                    }
+                }
+            }
+
+            List<Match> matches = new ArrayList<>();
+            int count = candidates == null ? current.size : candidates.size;
+            for (int i = 0; i < count; i++) {
+                int row = candidates == null ? i : candidates.rows[i];
+                if (current.deleted.get(row) || current.days[row] < fromDay || current.days[row] > toDay
+                        || (filter.type() != null && !filter.type().equals(current.types[row]))
+                        || (filter.category() != null && !filter.category().equals(current.categories[row]))) {
+                    continue;
+                }
+                int tier = tier(current.texts[row], phrase, words, excluded);
+                if (tier >= 0) {
+                    matches.add(new Match(current.ids[row], current.days[row], tier));
+                }
+            }
+
+            matches.sort(NEWEST_FIRST);
+            List<Match> ranked = new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())));
+            ranked.sort(Comparator.comparingInt(Match::tier).reversed().thenComparing(NEWEST_FIRST));
+            return new SearchResult(ranked.stream().map(match -> new SearchHit(match.id(), match.tier())).toList(),
+                    matches.size() > limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same contract as {@code TransactionRepositoryCustom.findSimilarSearchTerm}, with
+     * similarity computed the way pg_trgm does.
+     */
+    public String findSimilarTerm(String word, double threshold) {
+        long[] wordTrigrams = distinct(trigrams(word, true));
+        lock.readLock().lock();
+        try {
+            String best = null;
+            double bestSimilarity = threshold;
+            for (Map.Entry<String, long[]> term : loaded().terms.entrySet()) {
+                double similarity = similarity(wordTrigrams, term.getValue());
+                if (similarity > bestSimilarity || (similarity == bestSimilarity
+                        && (best == null || term.getKey().compareTo(best) < 0))) {
+                    best = term.getKey();
+                    bestSimilarity = similarity;
+                }
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Rows loaded() {
+        if (rows == null) {
+            throw new IllegalStateException("Search index is not loaded");
+        }
+        return rows;
+    }
+
+    /**
+     * Search text of a row: lower-cased description and category, led by a blank so every
+     * word, the first included, follows one.
+     */
+    static String text(String description, String category) {
+        return (" " + description + " " + category).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Runs of letters and digits, the words pg_trgm builds trigrams from.
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Whether a word goes into the vocabulary misspellings are corrected against. Numbers
+     * such as store or reference numbers are left out; they are rarely misspelled and
+     * would grow the vocabulary without bound.
+     */
+    static boolean isTerm(String word) {
+        return word.length() >= 3 && word.chars().allMatch(Character::isLetter);
+    }
+
+    /**
+     * Rank tier of a row's search text for the query, as in {@link SearchHit}, or -1 when
+     * the row does not match.
+     */
+    static int tier(String text, String phrase, List<String> words, List<String> excluded) {
+        if (!containsAll(text, words) || (excluded != null && containsAll(text, excluded))) {
+            return -1;
+        }
+        return text.contains(" " + phrase) ? 2 : text.contains(phrase) ? 1 : 0;
+    }
+
+    private static boolean containsAll(String text, List<String> words) {
+        for (String word : words) {
+            if (!text.contains(word.length() < 3 ? " " + word : word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Trigrams every row containing the query word has: those of its runs of letters and
+     * digits, or for a short word, which must start a word, the padded trigram its first
+     * run starts with. Empty when the word has no run of three.
+     */
+    private static long[] keyTrigrams(String word) {
+        if (word.length() >= 3) {
+            return trigrams(word, false);
+        }
+        String run = words(word).get(0);
+        return new long[] {trigram(run.length() == 1 ? "  " + run : " " + run, 0)};
+    }
+
+    private static double similarity(long[] a, long[] b) {
+        int shared = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    /**
+     * Trigrams of every run of letters and digits. Padded, each word gets two leading
+     * blanks and one trailing blank first, as in pg_trgm.
+     */
+    static long[] trigrams(String text, boolean padded) {
+        long[] out = new long[text.length() + 8];
+        int count = 0;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = padded ? "  " + text.substring(start, i) + " " : text.substring(start, i);
+                for (int j = 0; j + 3 <= word.length(); j++) {
+                    if (count == out.length) {
+                        out = Arrays.copyOf(out, count * 2);
+                    }
+                    out[count++] = trigram(word, j);
+                }
+                start = -1;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static long[] distinct(long[] values) {
+        return Arrays.stream(values).sorted().distinct().toArray();
+    }
+
+    private record Match(long id, int day, int tier) {
+    }
+
+    private static final class Postings {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            // Rows are appended in increasing order, so a repeated trigram repeats the last row.
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+
+    /**
+     * The indexed rows. Row numbers are positions in the arrays; a superseded row stays
+     * in place, marked deleted, until the next compaction.
+     */
+    private static final class Rows {
+        private long[] ids = new long[1024];
+        private int[] days = new int[1024];
+        private String[] types = new String[1024];
+        private String[] categories = new String[1024];
+        private String[] texts = new String[1024];
+        private int size;
+        private final BitSet deleted = new BitSet();
+        private int deletedCount;
+        private final Map<Long, Integer> rowById = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        // Distinct padded trigrams of each term; terms of deleted rows go at compaction.
+        private final Map<String, long[]> terms = new HashMap<>();
+        // Types and categories repeat across many rows; keep one copy of each.
+        private final Map<String, String> names = new HashMap<>();
+
+        void add(SearchDocument document) {
+            remove(document.id());
+            append(document.id(), (int) document.date().toEpochDay(), document.type(), document.category(),
+                    text(document.description(), document.category()));
+        }
+
+        private void append(long id, int day, String type, String category, String text) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                days = Arrays.copyOf(days, capacity);
+                types = Arrays.copyOf(types, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+            }
+            int row = size++;
+            ids[row] = id;
+            days[row] = day;
+            types[row] = names.computeIfAbsent(type, n -> n);
+            categories[row] = names.computeIfAbsent(category, n -> n);
+            texts[row] = text;
+            rowById.put(id, row);
+            for (long trigram : trigrams(text, true)) {
+                postings.computeIfAbsent(trigram, t -> new Postings()).add(row);
+            }
+            for (String word : words(text)) {
+                if (isTerm(word)) {
+                    terms.computeIfAbsent(word, w -> distinct(trigrams(w, true)));
+                }
+            }
+        }
+
+        void remove(long id) {
+            Integer row = rowById.remove(id);
+            if (row != null) {
+                deleted.set(row);
+                deletedCount++;
+            }
+        }
+
+        void apply(TransactionChangedEvent event) {
+            for (TransactionChangedEvent.Change change : event.changes()) {
+                TransactionChangedEvent.Entry after = change.after();
+                if (after == null) {
+                    remove(change.id());
+                } else {
+                    add(new SearchDocument(change.id(), after.type(), after.category(), after.date(),
+                            after.description()));
+                }
+            }
+        }
+
+        Rows compact() {
+            Rows compacted = new Rows();
+            for (int row = 0; row < size; row++) {
+                if (!deleted.get(row)) {
+                    compacted.append(ids[row], days[row], types[row], categories[row], texts[row]);
+                }
+            }
+            return compacted;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.SearchDocument;
+import com.rajtymmoney.api.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams every transaction's searchable fields into {@link TransactionSearchIndex}, those
+ * of archived years included.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionSearchIndexLoader {
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+
+    @Transactional(readOnly = true)
+    public void scan(Consumer<SearchDocument> sink) {
+        try (Stream<SearchDocument> rows = transactionRepository.streamSearchDocuments()) {
+            rows.forEach(sink);
+        }
+        try (Stream<SearchDocument> rows = transactionArchive.searchDocuments()) {
+            rows.forEach(sink);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.dto.SearchCursor;
+import com.rajtymmoney.api.dto.SearchHit;
+import com.rajtymmoney.api.dto.SearchResult;
+import com.rajtymmoney.api.dto.TransactionCursor;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.dto.TransactionSearchPage;
+import com.rajtymmoney.api.event.TransactionChangedEvent;
+import com.rajtymmoney.api.model.Transaction;
+import com.rajtymmoney.api.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Prefix, substring and fuzzy search over transaction descriptions and categories.
+ * {@code tym.search.backend} picks the pg_trgm index of migration V5 ({@code database}),
+ * {@link TransactionSearchIndex} ({@code memory}), or the index when the database has
+ * it and memory otherwise ({@code auto}).
+ * <p>
+ * A row matches when it contains every blank-separated word of the query, words shorter
+ * than three characters at the start of one of its words. When fewer than a page of rows
+ * do, misspelled words are swapped for the most similar word of the ledger's vocabulary
+ * and the rows matching the corrected query follow. Similarity is only ever computed
+ * against that vocabulary, never per row, which keeps fuzzy queries as cheap as exact ones.
+ * <p>
+ * The in-memory index holds archived years as well. With the database backend, archived
+ * rows fill up the candidates when the table has too few matches.
+ * <p>
+ * Only the newest {@code tym.search.max-candidates} matches are ranked, and the database
+ * backend stops looking after {@code tym.search.time-budget}, keeping the newest matches
+ * found by then as long as they fill the page. Either way the page is marked truncated,
+ * since older rows may match too. Where the search stopped goes into the page's cursor, and
+ * the pages asked with it search exactly as far, so they rank the same candidates.
+ */
+@Slf4j
+@Service
+public class TransactionSearchService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionSearchIndex searchIndex;
+    private final TransactionArchive transactionArchive;
+    private final String backend;
+    private final double threshold;
+    private final int maxCandidates;
+    private final Duration timeBudget;
+    private final TransactionTemplate termTransaction;
+    // Words of committed rows not yet in the database vocabulary, written by termWriter.
+    private final Set<String> pendingTerms = ConcurrentHashMap.newKeySet();
+    private final ExecutorService termWriter = Executors.newSingleThreadExecutor(
+            runnable -> Thread.ofPlatform().name("search-term-writer").daemon().unstarted(runnable));
+    // Null until the application is ready and a backend is chosen.
+    private volatile Boolean inMemory;
+
+    public TransactionSearchService(TransactionRepository transactionRepository,
+                                    TransactionSearchIndex searchIndex,
+                                    TransactionArchive transactionArchive,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${tym.search.backend:auto}") String backend,
+                                    @Value("${tym.search.similarity-threshold:0.4}") double threshold,
+                                    @Value("${tym.search.max-candidates:200}") int maxCandidates,
+                                    @Value("${tym.search.time-budget:PT0.025S}") Duration timeBudget) {
+        this.transactionRepository = transactionRepository;
+        this.searchIndex = searchIndex;
+        this.transactionArchive = transactionArchive;
+        this.backend = backend;
+        this.threshold = threshold;
+        this.maxCandidates = maxCandidates;
+        this.timeBudget = timeBudget;
+        this.termTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void selectBackend() {
+        inMemory = switch (backend) {
+            case "database" -> false;
+            case "memory" -> true;
+            case "auto" -> !transactionRepository.hasSearchIndex();
+            default -> throw new IllegalStateException("Unsupported tym.search.backend: " + backend);
+        };
+        log.info("Transaction search uses the {}", inMemory ? "in-memory index" : "pg_trgm index");
+        if (inMemory) {
+            searchIndex.loadInBackground();
+        }
+    }
+
+    /**
+     * Adds the words of committed rows to the database vocabulary. The in-memory index
+     * keeps its own. The insert runs on termWriter: the committing thread still holds its
+     * connection here, and waiting for a second one could exhaust the pool under load.
+     */
+    @TransactionalEventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (!Boolean.FALSE.equals(inMemory)) {
+            return;
+        }
+        boolean added = false;
+        for (TransactionChangedEvent.Change change : event.changes()) {
+            TransactionChangedEvent.Entry after = change.after();
+            if (after != null) {
+                for (String word : TransactionSearchIndex.words(TransactionSearchIndex.text(after.description(),
+                        after.category()))) {
+                    if (TransactionSearchIndex.isTerm(word)) {
+                        added |= pendingTerms.add(word);
+                    }
+                }
+            }
+        }
+        if (added) {
+            termWriter.execute(this::writePendingTerms);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        termWriter.shutdown();
+    }
+
+    private void writePendingTerms() {
+        Set<String> terms = new TreeSet<>();
+        for (Iterator<String> pending = pendingTerms.iterator(); pending.hasNext(); ) {
+            terms.add(pending.next());
+            pending.remove();
+        }
+        if (terms.isEmpty()) {
+            return;
+        }
+        try {
+            termTransaction.executeWithoutResult(status -> transactionRepository.addSearchTerms(terms));
+        } catch (RuntimeException e) {
+            // The rows are committed already; only typo correction misses these words.
+            log.warn("Could not add {} search terms", terms.size(), e);
+        }
+    }
+
+    /**
+     * Ranks the most recent {@code tym.search.max-candidates} matches found within
+     * {@code tym.search.time-budget}, or as many as the page needs; the page says whether
+     * more rows may match. With the {@code cursor} of an earlier page, ranks the candidates
+     * that page did.
+     */
+    @Transactional(readOnly = true)
+    public TransactionSearchPage search(String query, TransactionFilter filter, int page, Integer size,
+                                        String cursor) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        String normalized = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        List<String> words = Arrays.stream(normalized.split("\\s+"))
+                .filter(word -> word.codePoints().anyMatch(Character::isLetterOrDigit))
+                .toList();
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("q must contain a letter or digit");
+        }
+        if (normalized.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must not be longer than " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        SearchCursor resume = SearchCursor.decode(cursor);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = Math.multiplyExact(page, pageSize);
+        if (inMemory == null || (inMemory && !searchIndex.isReady())) {
+            throw new IllegalStateException("Search index is still loading");
+        }
+
+        // One extra id tells whether another page follows. With a cursor, each phase searches
+        // all rows down to where it stopped for the cursor's page, whatever the time.
+        int wanted = Math.min(maxCandidates, offset + pageSize + 1);
+        SearchResult exact = search(filter, normalized, words, null,
+                resume == null || resume.fuzzy() ? null : resume.position(),
+                maxCandidates, resume == null ? wanted : maxCandidates + 1, deadline);
+        List<SearchHit> hits = new ArrayList<>(exact.hits());
+        boolean truncated = exact.truncated();
+        SearchCursor next = new SearchCursor(false, exact.searchedTo());
+        if (!truncated && hits.size() < wanted) {
+            List<String> corrected = words.stream().map(this::correct).toList();
+            if (!corrected.equals(words)) {
+                boolean resumed = resume != null && resume.fuzzy();
+                int limit = maxCandidates - hits.size();
+                SearchResult fuzzy = search(filter, String.join(" ", corrected), corrected, words,
+                        resumed ? resume.position() : null, limit, resumed ? limit + 1 : wanted - hits.size(), deadline);
+                hits.addAll(fuzzy.hits());
+                truncated = fuzzy.truncated();
+                next = new SearchCursor(true, fuzzy.searchedTo());
+            }
+        }
+        List<Long> pageIds = hits.subList(Math.min(offset, hits.size()), Math.min(offset + pageSize, hits.size()))
+                .stream().map(SearchHit::id).toList();
+        boolean hasMore = hits.size() > offset + pageSize;
+
+        Map<Long, Transaction> byId = transactionRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+        List<Transaction> items = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            // The in-memory index can trail a delete by a moment.
+            Transaction transaction = byId.get(id);
+            if (transaction == null) {
+                transaction = transactionArchive.findById(id).orElse(null);
+            }
+            if (transaction != null) {
+                items.add(transaction);
+            }
+        }
+        return new TransactionSearchPage(query.strip(), page, pageSize, hasMore, truncated,
+                hasMore ? next.encode() : null, items);
+    }
+
+    // The in-memory index always searches every row, so it needs neither oldest nor minimum.
+    private SearchResult search(TransactionFilter filter, String phrase, List<String> words, List<String> excluded,
+                                TransactionCursor oldest, int limit, int minimum, long deadline) {
+        if (inMemory) {
+            return searchIndex.search(filter, phrase, words, excluded, limit);
+        }
+        SearchResult table = transactionRepository.search(filter, phrase, words, excluded, oldest, limit, minimum,
+                Duration.ofNanos(deadline - System.nanoTime()));
+        if (table.truncated()) {
+            // Unsearched table rows are newer than any archived one.
+            return table;
+        }
+        SearchResult archived = transactionArchive.search(filter, phrase, words, excluded,
+                limit - table.hits().size());
+        if (archived.hits().isEmpty()) {
+            return new SearchResult(table.hits(), archived.truncated());
+        }
+        // Archived years precede those left in the table, so within a tier their rows follow.
+        List<SearchHit> hits = new ArrayList<>(table.hits());
+        hits.addAll(archived.hits());
+        hits.sort(Comparator.comparingInt(SearchHit::tier).reversed());
+        return new SearchResult(hits, archived.truncated());
+    }
+
+    private String correct(String word) {
+        if (!TransactionSearchIndex.isTerm(word)) {
+            return word;
+        }
+        String term = inMemory
+                ? searchIndex.findSimilarTerm(word, threshold)
+                : transactionRepository.findSimilarSearchTerm(word, threshold);
+        return term != null ? term : word;
+    }
+}
@@ -1,43 +1,178 @@
 package com.rajtymmoney.api.service;
 
+import com.rajtymmoney.api.dto.TransactionCursor;
+import com.rajtymmoney.api.dto.TransactionFilter;
+import com.rajtymmoney.api.dto.TransactionPage;
+import com.rajtymmoney.api.event.TransactionChangedEvent;
 import com.rajtymmoney.api.model.Transaction;
 import com.rajtymmoney.api.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    static final String TABLE = "transactions";
+
     private final TransactionRepository transactionRepository;
+    private final TransactionRollupService rollupService;
+    private final TableVersionService tableVersionService;
+    private final TransactionArchive transactionArchive;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+        return transactionArchive.mergeList(transactionRepository.findAll(), TransactionFilter.none());
+    }
+
+    /**
+     * Changes with every committed create, update and delete; archiving does not change
+     * what the listings return and leaves it alone.
+     */
+    public long getTableVersion() {
+        return tableVersionService.current(TABLE);
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPage(TransactionFilter filter, TransactionCursor after, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a COUNT.
+        List<Transaction> rows = transactionArchive.mergePage(transactionRepository.findPage(filter, after, pageSize + 1),
+                filter, after, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> items = rows.subList(0, pageSize);
+        Transaction last = items.get(pageSize - 1);
+        return new TransactionPage(items, new TransactionCursor(last.getDate(), last.getId()).encode());
     }
 
+    @Transactional(readOnly = true)
     public Transaction getTransactionById(Long id) {
         return transactionRepository.findById(id)
+            .or(() -> transactionArchive.findById(id))
             .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
     }
 
+    /**
+     * The stored row, locked for changing it. The lock makes a concurrent update or delete
+     * of the same row wait, so the rollup delta and the change event are computed from the
+     * committed old value. Archived rows are read-only.
+     */
+    private Optional<Transaction> findWritable(Long id) {
+        Optional<Transaction> existing = transactionRepository.findLockedById(id);
+        if (existing.isEmpty() && transactionArchive.findById(id).isPresent()) {
+            throw new IllegalArgumentException("Transaction " + id + " is archived and read-only");
+        }
+        return existing;
+    }
+
+    /**
+     * Creates the transaction, or overwrites the stored one when the body carries the
+     * id of an existing row. The monthly rollup is adjusted in the same transaction.
+     */
+    @Transactional
     public Transaction addTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        if (transaction.getId() != null) {
+            Optional<Transaction> existing = findWritable(transaction.getId());
+            if (existing.isPresent()) {
+                return replace(existing.get(), transaction);
+            }
+            transaction.setId(null);
+        }
+        Transaction saved = transactionRepository.save(transaction);
+        rollupService.added(List.of(saved));
+        tableVersionService.changed(TABLE);
+        requireWritable(List.of(saved.getDate()));
+        eventPublisher.publishEvent(TransactionChangedEvent.created(List.of(saved)));
+        return saved;
+    }
+
+    @Transactional
+    public Transaction updateTransaction(Long id, Transaction transaction) {
+        return replace(findWritable(id)
+            .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id)), transaction);
     }
 
+    private Transaction replace(Transaction existing, Transaction updated) {
+        TransactionChangedEvent.Entry before = TransactionChangedEvent.Entry.of(existing);
+
+        existing.setType(updated.getType());
+        existing.setAmount(updated.getAmount());
+        existing.setDescription(updated.getDescription());
+        existing.setCategory(updated.getCategory());
+        existing.setDate(updated.getDate());
+
+        Transaction saved = transactionRepository.save(existing);
+        rollupService.replaced(before, saved);
+        tableVersionService.changed(TABLE);
+        requireWritable(List.of(before.date(), saved.getDate()));
+        eventPublisher.publishEvent(TransactionChangedEvent.updated(saved.getId(), before, saved));
+        return saved;
+    }
+
+    /**
+     * Inserts all rows in one database transaction; with the pooled sequence and
+     * hibernate.jdbc.batch_size this becomes a handful of batched INSERTs. The
+     * persistence context is cleared afterwards so repeated chunks in the same
+     * request do not pile up managed entities.
+     */
+    @Transactional
+    public List<Transaction> addTransactions(List<Transaction> transactions) {
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        rollupService.added(saved);
+        tableVersionService.changed(TABLE);
+        requireWritable(saved.stream().map(Transaction::getDate).toList());
+        eventPublisher.publishEvent(TransactionChangedEvent.created(saved));
+        entityManager.clear();
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return transactionRepository.findByDateBetween(startDate, endDate);
+        return transactionArchive.mergeList(transactionRepository.findByDateBetween(startDate, endDate),
+                new TransactionFilter(null, null, startDate, endDate));
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByType(String type) {
-        return transactionRepository.findByType(type);
+        return transactionArchive.mergeList(transactionRepository.findByType(type),
+                new TransactionFilter(type, null, null, null));
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getTransactionsByCategory(String category) {
-        return transactionRepository.findByCategory(category);
+        return transactionArchive.mergeList(transactionRepository.findByCategory(category),
+                new TransactionFilter(null, category, null, null));
     }
 
+    @Transactional
     public void deleteTransaction(Long id) {
-        transactionRepository.deleteById(id);
+        findWritable(id).ifPresent(transaction -> {
+            rollupService.removed(transaction);
+            tableVersionService.changed(TABLE);
+            transactionRepository.delete(transaction);
+            eventPublisher.publishEvent(TransactionChangedEvent.deleted(transaction));
+        });
+    }
+
+    /**
+     * Flushes the pending writes, then rejects them if any falls in an archived year. The
+     * flush comes first so a write that waited on the archive job's lock sees the year the
+     * job archived.
+     */
+    private void requireWritable(Collection<LocalDate> dates) {
+        entityManager.flush();
+        transactionArchive.requireWritable(dates);
     }
-} 
\ No newline at end of file
+}
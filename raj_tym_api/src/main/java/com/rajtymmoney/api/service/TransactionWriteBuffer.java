@@ -0,0 +1,193 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.model.Transaction;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind path for single transaction creates ({@code tym.ingest.buffered}). Callers
+ * queue their row and one writer thread commits the queue in groups through
+ * {@link TransactionService#addTransactions}, so a burst pays one commit per group rather
+ * than one per row. A caller's future completes only after its group has committed.
+ * <p>
+ * A group closes at {@code tym.ingest.batch-size} rows, or {@code tym.ingest.max-wait}
+ * after its first row. While one group commits, the next one collects in the queue, so
+ * groups grow with load without any wait configured. If a group fails, its rows are
+ * retried one by one so a bad row only fails its own request.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "tym.ingest.buffered", havingValue = "true")
+public class TransactionWriteBuffer {
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TransactionService transactionService;
+    private final ArrayBlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final Thread writer;
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private volatile boolean accepting = true;
+
+    public TransactionWriteBuffer(TransactionService transactionService,
+                                  @Value("${tym.ingest.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${tym.ingest.batch-size:500}") int batchSize,
+                                  @Value("${tym.ingest.max-wait:PT0.002S}") Duration maxWait) {
+        if (queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalStateException("tym.ingest.queue-capacity and tym.ingest.batch-size must be positive");
+        }
+        this.transactionService = transactionService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.writer = Thread.ofPlatform().name("transaction-writer").daemon().unstarted(this::run);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer.start();
+        log.info("Transaction creates are group-committed, up to {} rows or {} ms per group", batchSize,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+    }
+
+    /**
+     * Queues the row for the next group. The future completes with the stored row once it
+     * is committed, or with the exception {@link TransactionService#addTransaction} raised
+     * for it.
+     *
+     * @throws RejectedExecutionException if the queue is full
+     * @throws ShuttingDownException if the application is shutting down
+     */
+    public CompletableFuture<Transaction> submit(Transaction transaction) {
+        if (!accepting) {
+            throw new ShuttingDownException("Transaction writes are shutting down");
+        }
+        Pending pending = new Pending(transaction, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new RejectedExecutionException("Transaction write queue is full");
+        }
+        // shutdown() may have drained the queue since the check above, and then nothing
+        // would complete this row. If it is still queued, take it back; otherwise the writer
+        // or shutdown() has it.
+        if (!accepting && queue.remove(pending)) {
+            throw new ShuttingDownException("Transaction writes are shutting down");
+        }
+        return pending.result();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getGroups() {
+        return groups.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * Commits what is queued, then stops the writer. Rows queued after it stopped are
+     * failed rather than left waiting; submit() takes back any queued after this drains.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        if (writer.isAlive()) {
+            writer.join();
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (Pending pending : left) {
+            pending.result().completeExceptionally(new ShuttingDownException("Transaction writes are shutting down"));
+        }
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                collect(group);
+            } catch (InterruptedException e) {
+                // Taken as a stop request; what is queued still gets committed.
+                accepting = false;
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void collect(List<Pending> group) throws InterruptedException {
+        Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        group.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        queue.drainTo(group, batchSize - group.size());
+        while (group.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+            queue.drainTo(group, batchSize - group.size());
+        }
+    }
+
+    private void commit(List<Pending> group) {
+        List<Transaction> saved;
+        try {
+            saved = transactionService.addTransactions(group.stream().map(Pending::transaction).toList());
+        } catch (RuntimeException e) {
+            if (group.size() > 1) {
+                log.debug("Group of {} transactions failed, retrying them one by one", group.size(), e);
+            }
+            for (Pending pending : group) {
+                commitOne(pending);
+            }
+            return;
+        }
+        groups.increment();
+        rows.add(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            group.get(i).result().complete(saved.get(i));
+        }
+    }
+
+    private void commitOne(Pending pending) {
+        Transaction transaction = pending.transaction();
+        // The failed group may have assigned an id; without one this stays a create.
+        transaction.setId(null);
+        try {
+            Transaction saved = transactionService.addTransaction(transaction);
+            groups.increment();
+            rows.increment();
+            pending.result().complete(saved);
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private record Pending(Transaction transaction, CompletableFuture<Transaction> result) {
+    }
+}
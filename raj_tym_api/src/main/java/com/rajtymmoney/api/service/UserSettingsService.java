@@ -0,0 +1,106 @@
+package com.rajtymmoney.api.service;
+
+import com.rajtymmoney.api.model.UserSettings;
+import com.rajtymmoney.api.repository.UserSettingsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-through cache of the current settings row. Reads are served from memory once
+ * loaded; every write through this service replaces or evicts the cached value after
+ * the repository call has committed. The cache is per instance, so writes that bypass
+ * this service are not seen until the next eviction.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserSettingsService {
+    private final UserSettingsRepository userSettingsRepository;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // null means not loaded; an empty Optional caches "no settings yet".
+    private volatile Optional<UserSettings> current;
+
+    public Optional<UserSettings> getCurrentSettings() {
+        Optional<UserSettings> cached = current;
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        return load();
+    }
+
+    public synchronized UserSettings createSettings(UserSettings settings) {
+        UserSettings saved = userSettingsRepository.save(settings);
+        current = Optional.of(saved);
+        return saved;
+    }
+
+    public synchronized UserSettings updateSettings(UserSettings settings) {
+        UserSettings existing = userSettingsRepository.findFirstByOrderByIdDesc();
+        if (existing != null) {
+            settings.setId(existing.getId());
+        }
+        UserSettings saved = userSettingsRepository.save(settings);
+        current = Optional.of(saved);
+        return saved;
+    }
+
+    public synchronized boolean deleteSettings() {
+        UserSettings existing = userSettingsRepository.findFirstByOrderByIdDesc();
+        if (existing == null) {
+            return false;
+        }
+        userSettingsRepository.delete(existing);
+        // An older row may become current again; let the next read load it.
+        current = null;
+        return true;
+    }
+
+    /**
+     * The user's configured timezone, or the server's when none is set.
+     */
+    public ZoneId zone() {
+        return getCurrentSettings()
+                .map(UserSettings::getTimezone)
+                .map(UserSettingsService::zoneOrNull)
+                .orElse(ZoneId.systemDefault());
+    }
+
+    /**
+     * Today in {@link #zone()}.
+     */
+    public LocalDate today() {
+        return LocalDate.now(zone());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static ZoneId zoneOrNull(String timezone) {
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private synchronized Optional<UserSettings> load() {
+        if (current == null) {
+            current = Optional.ofNullable(userSettingsRepository.findFirstByOrderByIdDesc());
+        }
+        return current;
+    }
+}
@@ -0,0 +1,12 @@
+package com.rajtymmoney.api.service;
+
+/**
+ * Refuses an update that does not say which version of the entity it was based on, so it
+ * cannot silently overwrite a change the caller never saw.
+ */
+public class VersionRequiredException extends RuntimeException {
+
+    public VersionRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+-- Schema as mapped by the entities in com.rajtymmoney.api.model. Later changes go in new
+-- versioned scripts; the prod profile validates the mapping against this schema on startup.
+
+create sequence transactions_seq start with 1 increment by 50;
+
+create table transactions (
+    id          bigint         not null,
+    type        varchar(255)   not null,
+    amount      numeric(38, 2) not null,
+    description varchar(255)   not null,
+    category    varchar(255)   not null,
+    date        date           not null,
+    primary key (id)
+);
+
+-- Leading columns double as the single-column indexes on date, type and category.
+create index idx_transactions_date_id on transactions (date, id);
+create index idx_transactions_type_date_id on transactions (type, date, id);
+create index idx_transactions_category_date_id on transactions (category, date, id);
+
+create table transaction_monthly_rollups (
+    id           bigserial      not null,
+    rollup_month date           not null,
+    category     varchar(255)   not null,
+    type         varchar(255)   not null,
+    total        numeric(38, 2) not null,
+    txn_count    bigint         not null,
+    primary key (id),
+    constraint uk_rollup_month_category_type unique (rollup_month, category, type)
+);
+
+create table budgets (
+    id          bigserial      not null,
+    category    varchar(255)   not null,
+    amount      numeric(38, 2) not null,
+    start_date  date           not null,
+    end_date    date           not null,
+    status      varchar(255)   not null,
+    description varchar(255),
+    primary key (id)
+);
+
+create index idx_budgets_status on budgets (status);
+
+create table financial_goals (
+    id              bigserial      not null,
+    name            varchar(255)   not null,
+    target_amount   numeric(38, 2) not null,
+    current_savings numeric(38, 2) not null,
+    description     varchar(255),
+    icon_name       varchar(255),
+    status          varchar(255)   not null,
+    primary key (id)
+);
+
+create table reports (
+    id             bigserial    not null,
+    type           varchar(255) not null,
+    status         varchar(255) not null,
+    generated_date date         not null,
+    start_date     date,
+    end_date       date,
+    categories     varchar(255),
+    content        text,
+    description    varchar(255),
+    primary key (id)
+);
+
+create table user_settings (
+    id                       bigserial    not null,
+    currency                 varchar(255) not null,
+    language                 varchar(255) not null,
+    theme                    varchar(255) not null,
+    timezone                 varchar(255) not null,
+    notification_preferences varchar(255),
+    primary key (id)
+);
@@ -0,0 +1,10 @@
+-- Last-modified timestamps behind the collection ETags. Existing rows start at the
+-- migration time; the application stamps every later insert and update.
+
+alter table transactions add column updated_at timestamp(6) not null default localtimestamp;
+alter table budgets add column updated_at timestamp(6) not null default localtimestamp;
+alter table financial_goals add column updated_at timestamp(6) not null default localtimestamp;
+alter table user_settings add column updated_at timestamp(6) not null default localtimestamp;
+
+-- Keeps max(updated_at) an index lookup on the large table.
+create index idx_transactions_updated_at on transactions (updated_at);
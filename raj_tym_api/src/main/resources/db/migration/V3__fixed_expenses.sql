@@ -0,0 +1,28 @@
+-- Fixed expenses, moved into the application from the legacy entity package, and the
+-- record of which months each one has been posted to the ledger for.
+
+create table fixed_expenses (
+    id         bigserial      not null,
+    name       varchar(255)   not null,
+    amount     numeric(38, 2) not null,
+    due_date   integer        not null,
+    category   varchar(255)   not null,
+    status     varchar(255)   not null,
+    created_at timestamp(6)   not null,
+    updated_at timestamp(6)   not null,
+    primary key (id)
+);
+
+create index idx_fixed_expenses_status_due_date on fixed_expenses (status, due_date);
+
+create sequence fixed_expense_postings_seq start with 1 increment by 50;
+
+create table fixed_expense_postings (
+    id               bigint       not null,
+    fixed_expense_id bigint       not null,
+    period           date         not null,
+    transaction_id   bigint       not null,
+    posted_at        timestamp(6) not null,
+    primary key (id),
+    constraint uk_fixed_expense_postings_expense_period unique (fixed_expense_id, period)
+);
@@ -0,0 +1,3 @@
+-- Optimistic locking for full goal updates; contributions bump it as well.
+
+alter table financial_goals add column version bigint not null default 0;
@@ -0,0 +1,34 @@
+-- Trigram index behind GET /api/transactions/search. Creating the extension needs a
+-- role allowed to do so and the contrib package on the server; when either is missing
+-- the migration still succeeds and the application searches in memory instead.
+
+do $$
+begin
+    create extension if not exists pg_trgm;
+exception when insufficient_privilege or undefined_file then
+    raise notice 'pg_trgm unavailable, transaction search falls back to memory: %', sqlerrm;
+end
+$$;
+
+-- The index expression must match TransactionRepositoryCustomImpl.SEARCH_TEXT exactly.
+-- transaction_search_terms holds every word of letters in the ledger, which misspelled
+-- query words are corrected against; the application adds the words of new rows.
+do $$
+begin
+    if exists (select 1 from pg_extension where extname = 'pg_trgm') then
+        create index idx_transactions_search_trgm on transactions
+            using gin ((' ' || description || ' ' || category) gin_trgm_ops);
+
+        create table transaction_search_terms (
+            term varchar(255) primary key
+        );
+        insert into transaction_search_terms (term)
+            select distinct word
+            from transactions,
+                 regexp_split_to_table(lower(description || ' ' || category), '[^[:alnum:]]+') as word
+            where word ~ '^[[:alpha:]]{3,}$';
+        create index idx_transaction_search_terms_trgm on transaction_search_terms
+            using gin (term gin_trgm_ops);
+    end if;
+end
+$$;
@@ -0,0 +1,73 @@
+-- Range-partitions transactions on date, one partition per year of existing data plus the
+-- next year, and a default partition for anything outside them. TransactionPartitionService
+-- creates later partitions (yearly or monthly) ahead of time and moves stray rows out of the
+-- default partition. The primary key has to include the partition key.
+
+alter table transactions rename to transactions_unpartitioned;
+alter table transactions_unpartitioned drop constraint transactions_pkey;
+drop index idx_transactions_date_id;
+drop index idx_transactions_type_date_id;
+drop index idx_transactions_category_date_id;
+drop index idx_transactions_updated_at;
+drop index if exists idx_transactions_search_trgm;
+
+create table transactions (
+    id          bigint         not null,
+    type        varchar(255)   not null,
+    amount      numeric(38, 2) not null,
+    description varchar(255)   not null,
+    category    varchar(255)   not null,
+    date        date           not null,
+    updated_at  timestamp(6)   not null default localtimestamp,
+    primary key (id, date)
+) partition by range (date);
+
+create table transactions_default partition of transactions default;
+
+do $$
+declare
+    first_year integer;
+    last_year  integer := extract(year from current_date)::integer + 1;
+begin
+    select extract(year from min(date))::integer into first_year from transactions_unpartitioned;
+    for y in least(coalesce(first_year, last_year - 1), last_year - 1) .. last_year loop
+        execute format('create table transactions_y%s partition of transactions for values from (%L) to (%L)',
+                       y, make_date(y, 1, 1), make_date(y + 1, 1, 1));
+    end loop;
+end
+$$;
+
+insert into transactions (id, type, amount, description, category, date, updated_at)
+    select id, type, amount, description, category, date, updated_at from transactions_unpartitioned;
+drop table transactions_unpartitioned;
+
+-- Created on the parent, so every partition, present or future, gets its own copy.
+create index idx_transactions_date_id on transactions (date, id);
+create index idx_transactions_type_date_id on transactions (type, date, id);
+create index idx_transactions_category_date_id on transactions (category, date, id);
+create index idx_transactions_updated_at on transactions (updated_at);
+
+do $$
+begin
+    if exists (select 1 from pg_extension where extname = 'pg_trgm') then
+        create index idx_transactions_search_trgm on transactions
+            using gin ((' ' || description || ' ' || category) gin_trgm_ops);
+    end if;
+end
+$$;
+
+analyze transactions;
+
+-- Closed years moved out of the database by TransactionArchiveService, one read-only segment
+-- file per year. Readers only trust files listed here, so a file written by a run that
+-- failed before committing is never read.
+create table transaction_archive_segments (
+    id           bigserial    not null,
+    archive_year integer      not null,
+    file_name    varchar(255) not null,
+    row_count    bigint       not null,
+    size_bytes   bigint       not null,
+    archived_at  timestamp(6) not null,
+    primary key (id),
+    constraint uk_transaction_archive_segments_year unique (archive_year)
+);
@@ -0,0 +1,7 @@
+-- When each fixed expense last became ACTIVE; posting skips due dates before it, so
+-- reactivating an expense does not post the months it was inactive. Existing rows count
+-- as active since they were created.
+
+alter table fixed_expenses add column activated_at timestamp(6);
+update fixed_expenses set activated_at = created_at;
+alter table fixed_expenses alter column activated_at set not null;
@@ -0,0 +1,11 @@
+-- Content versions of tables behind the collection ETags, bumped by every committed write.
+-- Replaces count(*) plus max(updated_at) for transactions, which scanned the whole ledger and
+-- missed writers that committed after a newer updated_at was already visible.
+
+create table table_versions (
+    table_name varchar(64) not null,
+    version    bigint      not null,
+    primary key (table_name)
+);
+
+insert into table_versions (table_name, version) values ('transactions', 0);
@@ -16,6 +16,7 @@ interface FinancialGoal {
     iconName?: string;
     status: string;
     description?: string;
+    version?: number;
 }
 
 export default function Budgets() {